@@ -1,6 +1,8 @@
 package GSLO;
 
 import util.Area;
+import util.AreaGraph;
+import util.Partition;
 import util.Region;
 
 import java.util.ArrayList;
@@ -13,6 +15,8 @@ import java.util.LinkedList;
 public class EnclavesAssignment {
     LinkedList<Area> enclaves;
     ArrayList<Area> all_geoareas;
+    private AreaGraph graph;
+    private Partition partition;
     private Region[] regions;
 
     /**
@@ -24,6 +28,8 @@ public class EnclavesAssignment {
     {
         this.all_geoareas = all_areas;
         this.regions = regions;
+        this.graph = AreaGraph.of(regions , all_areas);
+        this.partition = Partition.of(regions);
         extract_enclaves();
         assign_enclaves();
     }
@@ -33,7 +39,7 @@ public class EnclavesAssignment {
     {
         enclaves = new LinkedList<>();
         for (Area current_area : all_geoareas) {
-            if (current_area.get_associated_region_index() == -1) {
+            if (partition.get_region(current_area) == -1) {
                 enclaves.add(current_area);
             }
         }
@@ -71,14 +77,15 @@ public class EnclavesAssignment {
     {
         ArrayList<Region> complete_region_neighs = new ArrayList<>();
 
-        for(Area current_neigh_area : e.get_neigh_area(all_geoareas))
+        for(int k = graph.begin(e.get_geo_index()) ; k < graph.end(e.get_geo_index()) ; k++)
         {
-            if(current_neigh_area.get_associated_region_index() == -1) //the neighbor is also an enclave
+            Area current_neigh_area = graph.get_area(graph.neighbor(k));
+            if(partition.get_region(current_neigh_area) == -1) //the neighbor is also an enclave
             {
                 continue;
             }
 
-            Region associate_region = regions[current_neigh_area.get_associated_region_index()];
+            Region associate_region = regions[partition.get_region(current_neigh_area)];
             if(!complete_region_neighs.contains(associate_region))
             {
                 complete_region_neighs.add(associate_region);
@@ -1,9 +1,12 @@
 package GSLO;
 
 import util.Area;
+import util.AreaGraph;
+import util.Partition;
 import util.Region;
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 /**
  * This class corresponds to the Section 5.1 Global Search
@@ -11,6 +14,8 @@ import java.util.ArrayList;
 public class GlobalSearch {
     private Region[] regions;
     private ArrayList<Area> all_areas;
+    private AreaGraph graph;
+    private Partition partition;
     private Seed seed;
     private long total_running_time;
     private long seed_time;
@@ -25,11 +30,54 @@ public class GlobalSearch {
      *
      * @param all_areas the input areas
      * @param p the predefined number of regions
-     * @param selection_max_iter the maximum number of iterations in Seed Identification
+     * @param selection_max_iter the maximum number of iterations in Seed Identification, a negative value selects the k-means++ seeding
      * @param threshold the value on the user-defined constraint
      * @param detect_island whether or not the input dataset includes island
      */
     public GlobalSearch(ArrayList<Area> all_areas, int p, int selection_max_iter, long threshold , boolean detect_island) throws InterruptedException {
+        this(all_areas , p , selection_max_iter , threshold , detect_island , false , 1 , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param all_areas the input areas
+     * @param p the predefined number of regions
+     * @param selection_max_iter the maximum number of iterations in Seed Identification, a negative value selects the k-means++ seeding
+     * @param threshold the value on the user-defined constraint
+     * @param detect_island whether or not the input dataset includes island
+     * @param farthest_point whether or not to use the deterministic farthest-point seeding, selection_max_iter is then ignored. It is not used when there is island
+     */
+    public GlobalSearch(ArrayList<Area> all_areas, int p, int selection_max_iter, long threshold , boolean detect_island , boolean farthest_point) throws InterruptedException {
+        this(all_areas , p , selection_max_iter , threshold , detect_island , farthest_point , 1 , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param all_areas the input areas
+     * @param p the predefined number of regions
+     * @param selection_max_iter the maximum number of iterations in Seed Identification, a negative value selects the k-means++ seeding
+     * @param threshold the value on the user-defined constraint
+     * @param detect_island whether or not the input dataset includes island
+     * @param seed_starts the number of parallel starts of Seed Identification, the best seed is kept. It is only used when selection_max_iter is not negative
+     *                    and there is no island
+     */
+    public GlobalSearch(ArrayList<Area> all_areas, int p, int selection_max_iter, long threshold , boolean detect_island , int seed_starts) throws InterruptedException {
+        this(all_areas , p , selection_max_iter , threshold , detect_island , false , seed_starts , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param all_areas the input areas
+     * @param p the predefined number of regions
+     * @param selection_max_iter the maximum number of iterations in Seed Identification, a negative value selects the k-means++ seeding
+     * @param threshold the value on the user-defined constraint
+     * @param detect_island whether or not the input dataset includes island
+     * @param farthest_point whether or not to use the deterministic farthest-point seeding, selection_max_iter and seed_starts are then ignored. It is not used when there is island
+     * @param seed_starts the number of parallel starts of Seed Identification, the best seed is kept. It is only used when selection_max_iter is not negative
+     *                    and there is no island
+     * @param random the random number generator of Seed Identification, the same seed gives the same partition
+     */
+    public GlobalSearch(ArrayList<Area> all_areas, int p, int selection_max_iter, long threshold , boolean detect_island , boolean farthest_point , int seed_starts , SplittableRandom random) throws InterruptedException {
         long start = System.currentTimeMillis();
 
         this.all_areas = all_areas;
@@ -38,27 +86,39 @@ public class GlobalSearch {
         long seeding_start = System.nanoTime();
         if(!detect_island)
         {
-            if(selection_max_iter >= 0)
+            if(farthest_point)
+            {
+                seed = new SeedIdentification(all_areas , p , selection_max_iter , false , false , true , random).getBest_seed();
+            }
+
+            else if(selection_max_iter < 0)
+            {
+                seed = new SeedIdentification(all_areas , p , selection_max_iter , true , false , false , random).getBest_seed();
+            }
+
+            else if(seed_starts > 1)
             {
-                seed = new SeedIdentification(all_areas , p , selection_max_iter , false , false).getBest_seed();
+                seed = new SeedIdentification(all_areas , p , selection_max_iter , seed_starts , 0 , random).getBest_seed();
             }
 
             else
             {
-                seed = new SeedIdentification(all_areas , p , selection_max_iter , true , false).getBest_seed();
+                seed = new SeedIdentification(all_areas , p , selection_max_iter , false , false , false , random).getBest_seed();
             }
         }
 
         else
         {
-            seed = new SeedIdentification(all_areas , p , selection_max_iter , false , true).getBest_seed();
+            seed = new SeedIdentification(all_areas , p , selection_max_iter , false , true , false , random).getBest_seed();
         }
 
         long seeding_end = System.nanoTime();
         this.seed_time = seeding_end - seeding_start;
 
         long region_growth_start = System.nanoTime();
-        regions = new RegionGrowth(seed , threshold , all_areas).grow_region_robust();
+        graph = new AreaGraph(all_areas);
+        partition = new Partition(graph , seed.get_seed_size());
+        regions = new RegionGrowth(seed , threshold , partition).grow_region_robust();
         long region_growth_end = System.nanoTime();
         this.region_growth_time = region_growth_end - region_growth_start;
 
@@ -147,6 +207,22 @@ public class GlobalSearch {
         return all_areas;
     }
 
+    /**
+     * @return the graph of the input areas shared by the regions and the later phases
+     */
+    public AreaGraph get_graph()
+    {
+        return graph;
+    }
+
+    /**
+     * @return the assignment of the areas to the regions
+     */
+    public Partition get_partition()
+    {
+        return partition;
+    }
+
     public Region[] get_regions()
     {
         return regions;
@@ -1,7 +1,11 @@
 package GSLO;
 
 import util.Area;
+import util.AreaGraph;
+import util.AreaSet;
+import util.Partition;
 import util.Region;
+import util.RegionAdjacency;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -15,8 +19,9 @@ public class IndirectFlowPush {
     private Region[] regions;
     private long threshold;
     private ArrayList<Area> all_areas;
-    ArrayList<Region>[] neighbor_regions;
-    ArrayList<ArrayList<Area>>[] neighbor_region_areas;
+    private AreaGraph graph;
+    private Partition partition;
+    private RegionAdjacency adjacency;
     int[] regions_status;
     ArrayList<Region> unprocessed_regions;
     ArrayList<Region> exhausting_regions;
@@ -40,9 +45,10 @@ public class IndirectFlowPush {
         this.regions = regions;
         this.threshold = threshold;
         this.all_areas = all_areas;
+        this.graph = AreaGraph.of(regions , all_areas);
+        this.partition = Partition.of(regions);
+        this.adjacency = partition.get_adjacency();
         regions_status = new int[regions.length];
-        neighbor_regions = new ArrayList[regions.length];
-        neighbor_region_areas = new ArrayList[regions.length];
         unprocessed_regions = new ArrayList<Region>();
         exhausting_regions = new ArrayList<Region>();
         processed_regions = new ArrayList<Region>();
@@ -55,7 +61,7 @@ public class IndirectFlowPush {
      */
     public void flow_pushing()
     {
-        initialize_neighbor(); //build the neighboring relations on the region level
+        initialize_status(); //the neighboring relations on the region level are kept by the adjacency of the partition
         Comparator<Region> regionComparator = Comparator.comparingLong(o -> o.get_region_extensive_attr());
         for(Region r : regions)
         {
@@ -94,8 +100,9 @@ public class IndirectFlowPush {
                 ArrayList<Region> r_exhausting_incomplete_neigh = new ArrayList<>();
                 ArrayList<Region> r_unprocessed_neigh = new ArrayList<>();
                 //find the neighboring region of r_select and divide them into different categories
-                for(Region r_neigh : neighbor_regions[processing_r.get_region_index()])
+                for(int k = 0 ; k < adjacency.get_neighbor_num(processing_r.get_region_index()) ; k++)
                 {
+                    Region r_neigh = regions[adjacency.get_neighbor(processing_r.get_region_index() , k)];
                     if(regions_status[r_neigh.get_region_index()] == UNPROCESSED)
                     {
                         r_unprocessed_neigh.add(r_neigh);
@@ -145,40 +152,14 @@ public class IndirectFlowPush {
     }
 
     /**
-     * Initialize the neighbors on the region level
+     * Initialize the status of the regions, a region with a single neighboring region is Exhausting
      */
-    private void initialize_neighbor()
+    private void initialize_status()
     {
         for(int i = 0 ; i < regions.length ; i++)
         {
             Region r = regions[i];
-            ArrayList<Area> r_neigh_areas = r.get_neigh_areas();
-            ArrayList<Region> neigh_regions = new ArrayList<>();
-            ArrayList<ArrayList<Area>> neigh_areas_each_neigh_regions = new ArrayList<>();
-            for(Area r_neigh_area : r_neigh_areas)
-            {
-                Region associated_r = regions[r_neigh_area.get_associated_region_index()];
-                if(!neigh_regions.contains(associated_r))
-                {
-                    neigh_regions.add(associated_r);
-                    ArrayList<Area> corresponding_areas = new ArrayList<Area>();
-                    corresponding_areas.add(r_neigh_area);
-                    neigh_areas_each_neigh_regions.add(corresponding_areas);
-                }
-
-                else
-                {
-                    int index = neigh_regions.indexOf(associated_r);
-                    ArrayList<Area> areas_corresponded_r = neigh_areas_each_neigh_regions.get(index);
-                    areas_corresponded_r.add(r_neigh_area);
-                }
-            }
-            neighbor_regions[i] = neigh_regions;
-            neighbor_region_areas[i] = neigh_areas_each_neigh_regions;
-
-
-
-            if(neighbor_regions[i].size() == 1)
+            if(adjacency.get_neighbor_num(i) == 1)
             {
                 regions_status[i] = EXHAUSTING;
                 exhausting_regions.add(r);
@@ -279,9 +260,8 @@ public class IndirectFlowPush {
             return null;
         }
         ArrayList<Area> donor_aps = new Tarjan(donor , all_areas).findAPs_Tarjan();
-        int index = neighbor_regions[receiver.get_region_index()].indexOf(donor);
-        ArrayList<Area> dr_margin = (ArrayList<Area>) (neighbor_region_areas[receiver.get_region_index()].get(index).clone());
-        dr_margin.removeAll(donor_aps);
+        ArrayList<Area> dr_margin = new ArrayList<>(adjacency.get_border_areas(receiver.get_region_index() , donor.get_region_index()));
+        dr_margin.removeAll(new AreaSet(donor_aps));
 
         int max_conn = Integer.MIN_VALUE;
         Area best_area = null;
@@ -321,16 +301,15 @@ public class IndirectFlowPush {
 
         ArrayList<Region> region_involved = new ArrayList<Region>();
 
-        for(Area neigh_area : area.get_neigh_area(all_areas))
+        for(int k = graph.begin(area.get_geo_index()) ; k < graph.end(area.get_geo_index()) ; k++)
         {
-            if(!region_involved.contains(regions[neigh_area.get_associated_region_index()]))
+            Area neigh_area = graph.get_area(graph.neighbor(k));
+            if(!region_involved.contains(regions[partition.get_region(neigh_area)]))
             {
-                region_involved.add(regions[neigh_area.get_associated_region_index()]);
+                region_involved.add(regions[partition.get_region(neigh_area)]);
             }
         }
 
-        fix_region_around_area(region_involved); //reconstruct the neighbor list of the neighboring regions
-
         for(Region r : region_involved)
         {
             if(regions_status[r.get_region_index()] != PROCESSED)
@@ -342,51 +321,12 @@ public class IndirectFlowPush {
 
     }
 
-    /**
-     * This method updates the neighbor relations of the regions whose one neighboring area has been moved
-     * @param region_involved the list of neighboring region of the area that has been moved
-     */
-    private void fix_region_around_area(ArrayList<Region> region_involved)
-    {
-        for(Region r : region_involved)
-        {
-            ArrayList<Area> r_neigh_areas = r.get_neigh_areas();
-
-            ArrayList<Region> neigh_regions = new ArrayList<Region>();
-            ArrayList<ArrayList<Area>> neigh_areas_each_neigh_regions = new ArrayList<>();
-
-            for(Area r_neigh_area : r_neigh_areas)
-            {
-                Region associated_r = regions[r_neigh_area.get_associated_region_index()];
-
-                if(!neigh_regions.contains(associated_r))
-                {
-                    neigh_regions.add(associated_r);
-                    ArrayList<Area> corresponding_areas = new ArrayList<Area>();
-                    corresponding_areas.add(r_neigh_area);
-                    neigh_areas_each_neigh_regions.add(corresponding_areas);
-                }
-
-                else
-                {
-                    int index = neigh_regions.indexOf(associated_r);
-                    ArrayList<Area> areas_corresponded_r = neigh_areas_each_neigh_regions.get(index);
-                    areas_corresponded_r.add(r_neigh_area);
-                }
-            }
-
-            neighbor_regions[r.get_region_index()] = neigh_regions;
-            neighbor_region_areas[r.get_region_index()] = neigh_areas_each_neigh_regions;
-        }
-
-    }
-
-
     private int return_label(Region r)
     {
         int count = 0;
-        for(Region neigh : neighbor_regions[r.get_region_index()])
+        for(int k = 0 ; k < adjacency.get_neighbor_num(r.get_region_index()) ; k++)
         {
+            Region neigh = regions[adjacency.get_neighbor(r.get_region_index() , k)];
             if(regions_status[neigh.get_region_index()] == UNPROCESSED || regions_status[neigh.get_region_index()] == EXHAUSTING)
             {
                 count ++;
@@ -450,8 +390,9 @@ public class IndirectFlowPush {
 
         if(new_label == PROCESSED)
         {
-            for(Region neigh : neighbor_regions[r.get_region_index()])
+            for(int k = 0 ; k < adjacency.get_neighbor_num(r.get_region_index()) ; k++)
             {
+                Region neigh = regions[adjacency.get_neighbor(r.get_region_index() , k)];
                 if(regions_status[neigh.get_region_index()] != PROCESSED)
                 {
                     if(regions_status[neigh.get_region_index()] == EXHAUSTING)
@@ -462,8 +403,9 @@ public class IndirectFlowPush {
                     else if(regions_status[neigh.get_region_index()] == UNPROCESSED)
                     {
                         int count = 0;
-                        for(Region nn_r : neighbor_regions[neigh.get_region_index()])
+                        for(int l = 0 ; l < adjacency.get_neighbor_num(neigh.get_region_index()) ; l++)
                         {
+                            Region nn_r = regions[adjacency.get_neighbor(neigh.get_region_index() , l)];
                             if(regions_status[nn_r.get_region_index()] == UNPROCESSED || regions_status[nn_r.get_region_index()] == EXHAUSTING)
                             {
                                 count ++;
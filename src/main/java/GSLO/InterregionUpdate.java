@@ -1,7 +1,10 @@
 package GSLO;
 
 import util.Area;
+import util.AreaSet;
+import util.Partition;
 import util.Region;
+import util.RegionAdjacency;
 
 import java.util.*;
 
@@ -14,6 +17,8 @@ public class InterregionUpdate {
     private Queue<Region> incomplete_regions;
     private int adjust_max_iter;
     private ArrayList<Area> all_areas;
+    private Partition partition;
+    private RegionAdjacency adjacency;
 
     /**
      *
@@ -25,6 +30,8 @@ public class InterregionUpdate {
         this.adjust_max_iter = all_areas.size();
         this.regions = regions;
         this.all_areas = all_areas;
+        this.partition = Partition.of(regions);
+        this.adjacency = partition.get_adjacency();
     }
 
     public void region_adjustment() {
@@ -68,27 +75,14 @@ public class InterregionUpdate {
             Region receiver = incomplete_regions.remove();
 
             ArrayList<Region> potential_donor_regions = new ArrayList<Region>();
-            ArrayList<ArrayList<Area>> potential_donor_margin_areas = new ArrayList<>();
 
-            //detect all the possible donor areas by iterating the neighbor areas of the receiver region
-            for(Area receiver_neigh_area : receiver.get_neigh_areas())
+            //detect all the possible donor regions among the neighboring regions of the receiver region
+            for(int k = 0 ; k < adjacency.get_neighbor_num(receiver.get_region_index()) ; k++)
             {
-                Region donor = regions[receiver_neigh_area.get_associated_region_index()];
+                Region donor = regions[adjacency.get_neighbor(receiver.get_region_index() , k)];
                 if(donor.is_region_complete() && donor.get_region_size() > 1)
                 {
-                    if(potential_donor_regions.contains(donor))
-                    {
-                        int index = potential_donor_regions.indexOf(donor);
-                        potential_donor_margin_areas.get(index).add(receiver_neigh_area);
-                    }
-
-                    else
-                    {
-                        potential_donor_regions.add(donor);
-                        ArrayList<Area> donor_margin_area = new ArrayList<Area>();
-                        donor_margin_area.add(receiver_neigh_area);
-                        potential_donor_margin_areas.add(donor_margin_area);
-                    }
+                    potential_donor_regions.add(donor);
                 }
             }
 
@@ -96,14 +90,13 @@ public class InterregionUpdate {
             while(potential_donor_regions.size() != 0) //iterating the neighboring complete regions, starting from the one with maximum extensive attribute
             {
                 Region donor = Collections.max(potential_donor_regions, regionComparator);
-                int index = potential_donor_regions.indexOf(donor);
-                ArrayList<Area> donor_margin_areas = potential_donor_margin_areas.get(index);
+                //the areas of the donor next to the receiver, copied since the move below updates the border
+                ArrayList<Area> donor_margin_areas = new ArrayList<>(adjacency.get_border_areas(receiver.get_region_index() , donor.get_region_index()));
                 ArrayList<Area> donor_APs = new Tarjan(donor , all_areas).findAPs_Tarjan(); //filter out all the articulation areas
-                donor_margin_areas.removeAll(donor_APs);
+                donor_margin_areas.removeAll(new AreaSet(donor_APs));
                 if(donor_margin_areas.size() == 0)
                 {
-                    potential_donor_margin_areas.remove(index);
-                    potential_donor_regions.remove(index);
+                    potential_donor_regions.remove(donor);
                 }
                 else
                 {
@@ -1,14 +1,16 @@
 package GSLO;
 
 import util.Area;
+import util.AreaSet;
+import util.Partition;
 import util.Region;
+import util.RegionAdjacency;
 
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This class corresponds to Section 5.2 Local Optimization
@@ -19,13 +21,16 @@ public class LocalOptimization {
     private double temperature = 1.0; //initial temperature
     private double alpha; //cooling rate
     private ArrayList<Area> all_areas;
-    private ArrayList<Area> best_area_label;
+    private Partition partition;
+    private int[] best_assignment;
+    private AreaSet moved_since_best; //the areas moved since best_assignment was last brought up to date
     private Region[] regions;
     private long threshold;
     private final int tabu_len = 100; //length of the tabu list to avoid repetitive moves
     private long total_time;
     private long best_hetero;
     private GlobalSearch sol;
+    private SplittableRandom random;
 
     /**
      *
@@ -38,10 +43,27 @@ public class LocalOptimization {
      *
      */
     public LocalOptimization(GlobalSearch sol , int max_no_improve , double alpha, ArrayList<Area> all_areas , Region[] regions , long threshold) throws CloneNotSupportedException, InterruptedException {
+        this(sol , max_no_improve , alpha , all_areas , regions , threshold , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param sol The partition obtained from the Global Search phase
+     * @param max_no_improve The maximum number iterations allowed without improving the best heterogeneity
+     * @param alpha The cooling rate
+     * @param all_areas The input areas
+     * @param regions The regions
+     * @param threshold The value of the user-defined constraint
+     * @param random The random number generator of the selected areas and of the Boltzmann acceptance
+     *
+     */
+    public LocalOptimization(GlobalSearch sol , int max_no_improve , double alpha, ArrayList<Area> all_areas , Region[] regions , long threshold , SplittableRandom random) throws CloneNotSupportedException, InterruptedException {
+        this.random = random;
         this.max_no_improve = max_no_improve;
         this.alpha = alpha;
         this.all_areas = all_areas;
         this.regions = regions;
+        this.partition = Partition.of(regions);
         this.threshold = threshold;
         tabu_list = new ArrayList<>();
         this.sol = sol;
@@ -61,6 +83,8 @@ public class LocalOptimization {
         int no_improving_move = 0;
 
         long optimal_hetero = Region.get_all_region_hetero(regions);
+        best_assignment = partition.snapshot();
+        moved_since_best = new AreaSet();
 
 
         while(no_improving_move < max_no_improve)
@@ -80,7 +104,7 @@ public class LocalOptimization {
             }
 
             Area area_to_move = (Area)results[0];
-            Region donor = regions[area_to_move.get_associated_region_index()];
+            Region donor = regions[partition.get_region(area_to_move)];
             Region receiver = (Region)results[1];
             long optimal_hetero_decre = (long)results[2];
 
@@ -100,6 +124,7 @@ public class LocalOptimization {
                 move_flag = true;
                 donor.remove_area_in_region(area_to_move);
                 receiver.add_area_to_region(area_to_move);
+                moved_since_best.add(area_to_move);
 
                 movable_units.remove(area_to_move);
 
@@ -110,7 +135,7 @@ public class LocalOptimization {
                 {
                     no_improving_move = 0;
                     optimal_hetero = total_hetero;
-                    best_area_label = Area.area_list_copy(all_areas);
+                    update_best_assignment();
                 }
 
                 //suggesting the move does not increase the heterogeneity of the best partition
@@ -125,7 +150,7 @@ public class LocalOptimization {
             else
             {
                 no_improving_move ++;
-                double random_num = Math.random();
+                double random_num = random.nextDouble();
                 double Boltzmann = Math.pow(Math.E , (optimal_hetero_decre / temperature));
                 //double Boltzmann = Math.pow(Math.E , (  - ((double)(Region.get_all_region_hetero(regions) - optimal_hetero)/optimal_hetero) / temperature) );
                 //double Boltzmann = Math.pow(Math.E , ((optimal_hetero_decre) / temperature));
@@ -141,8 +166,8 @@ public class LocalOptimization {
                         tabu_list.add(new Move(area_to_move , receiver , donor));
                         donor.remove_area_in_region(area_to_move);
                         receiver.add_area_to_region(area_to_move);
+                        moved_since_best.add(area_to_move);
                         move_flag = true;
-                        best_area_label = Area.area_list_copy(all_areas);
                     }
                 }
 
@@ -159,7 +184,7 @@ public class LocalOptimization {
                 ArrayList<Area> area_to_remove = new ArrayList<>();
                 for(Area area : movable_units)
                 {
-                    if((area.get_associated_region_index() == donor.get_region_index()) || (area.get_associated_region_index() == receiver.get_region_index()))
+                    if((partition.get_region(area) == donor.get_region_index()) || (partition.get_region(area) == receiver.get_region_index()))
                     {
                         area_to_remove.add(area);
                     }
@@ -174,21 +199,42 @@ public class LocalOptimization {
 
         }
 
+        //the search may end on a worse partition than the best one, in which case the regions are rebuilt from the best assignment
+        if(moved_since_best.size() > 0)
+        {
+            Region[] best_regions = Region.construct_region_from_assignment(partition , best_assignment , threshold);
+            System.arraycopy(best_regions , 0 , regions , 0 , regions.length);
+            moved_since_best.clear();
+        }
+
         long end_time = System.currentTimeMillis();
         total_time = end_time - start_time;
 
         this.best_hetero = optimal_hetero;
     }
 
+    /**
+     * This method brings the best assignment up to the current partition by replaying only the areas moved since its last update,
+     * so recording a new best partition costs the number of moves in between instead of a copy of all the areas
+     */
+    private void update_best_assignment()
+    {
+        for(Area area : moved_since_best)
+        {
+            best_assignment[area.get_geo_index()] = partition.get_region(area);
+        }
+        moved_since_best.clear();
+    }
+
 
     //in this greedy method, the parameter is the list of all movable units, we randomly process one of these movable units and try to ressign the unit
     //to the region with maximum heterogeneity decrease
     public Object[] greedy_find(ArrayList<Area> movable_units)
     {
-        Area area = movable_units.get(new Random().nextInt(movable_units.size()));
+        Area area = movable_units.get(random.nextInt(movable_units.size()));
 
 
-        int current_r_index = area.get_associated_region_index();
+        int current_r_index = partition.get_region(area);
 
         //suggesting that removing this area will cause the region to fall below the threshold
         if(regions[current_r_index].get_region_extensive_attr() - area.get_extensive_attr() < threshold || regions[current_r_index].get_region_size() == 1)
@@ -197,31 +243,31 @@ public class LocalOptimization {
             return new Object[]{null};
         }
 
-        ArrayList<Region> region_neighbors = new ArrayList<>();
-
-        for(Area neigh_area : area.get_neigh_area(all_areas))
+        //all the neighbors of the area are in its own region
+        if(!partition.is_on_boundary(area))
         {
-            if(neigh_area.get_associated_region_index() != current_r_index)
-            {
-                Region r = regions[neigh_area.get_associated_region_index()];
-                if(!region_neighbors.contains(r))
-                {
-                    region_neighbors.add(r);
-                }
-            }
+            movable_units.remove(area);
+            return new Object[]{null};
         }
 
-        if(region_neighbors.size() == 0)
+        //the area is on the border with the neighboring regions that have it among their border areas,
+        //the adjacency is read from the partition every time since restoring the best assignment replaces it
+        RegionAdjacency adjacency = partition.get_adjacency();
+        ArrayList<Region> region_neighbors = new ArrayList<>();
+        for(int k = 0 ; k < adjacency.get_neighbor_num(current_r_index) ; k++)
         {
-            movable_units.remove(area);
-            return new Object[]{null};
+            int neigh_r_index = adjacency.get_neighbor(current_r_index , k);
+            if(adjacency.get_border_areas(neigh_r_index , current_r_index).contains(area))
+            {
+                region_neighbors.add(regions[neigh_r_index]);
+            }
         }
 
         long optimal_hetero_decre = Long.MIN_VALUE;
         Region best_region = null;
         for(Region r : region_neighbors)
         {
-            Region belonging_region = regions[area.get_associated_region_index()];
+            Region belonging_region = regions[partition.get_region(area)];
             long hetero_decre = belonging_region.compute_hetero_decre(area) - r.compute_hetero_incre(area);
             if(hetero_decre > optimal_hetero_decre)
             {
@@ -241,11 +287,10 @@ public class LocalOptimization {
      */
     public ArrayList<Area> parallel_search_movable_units() {
         ArrayList<Area> movable_units = new ArrayList<>();
-        ReentrantLock lock = new ReentrantLock();
         ExecutorService threadPool = Executors.newFixedThreadPool(4);
         ArrayList<ParallelMovableUnitsSearch> tasks = new ArrayList<>();
         for (Region region : regions) {
-            tasks.add(new ParallelMovableUnitsSearch(region, movable_units, lock));
+            tasks.add(new ParallelMovableUnitsSearch(region));
         }
 
         for(ParallelMovableUnitsSearch task : tasks)
@@ -258,6 +303,12 @@ public class LocalOptimization {
             threadPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
         }
         catch (InterruptedException ignored) {}
+
+        //the lists are joined in the order of the regions, so the random selection does not depend on which thread finishes first
+        for(ParallelMovableUnitsSearch task : tasks)
+        {
+            movable_units.addAll(task.movable_areas);
+        }
         return movable_units;
     }
 
@@ -271,6 +322,22 @@ public class LocalOptimization {
         return best_hetero;
     }
 
+    /**
+     * @return the region of every area in the best partition, indexed by the geo index
+     */
+    public int[] getBest_assignment()
+    {
+        return best_assignment;
+    }
+
+    /**
+     * @return the regions of the best partition, the same array as the regions given to the constructor
+     */
+    public Region[] get_regions()
+    {
+        return regions;
+    }
+
 
     /**
      * This class extends the Thread class and executes the task of finding the movable areas from a region
@@ -278,27 +345,22 @@ public class LocalOptimization {
     class ParallelMovableUnitsSearch extends Thread
     {
         Region r;
-        ArrayList<Area> all_movable_units;
-        ReentrantLock lock;
-        ArrayList<Area> areas_in_r;
+        ArrayList<Area> movable_areas;
+        AreaSet areas_in_r;
 
-        public ParallelMovableUnitsSearch(Region r , ArrayList<Area> all_movable_units , ReentrantLock lock)
+        public ParallelMovableUnitsSearch(Region r)
         {
             this.r = r;
-            this.lock = lock;
-            this.all_movable_units = all_movable_units;
             areas_in_r = r.get_areas_in_region();
         }
 
         public void run()
         {
             ArrayList<Area> r_articulation_pts = new Tarjan(r , all_areas).findAPs_Tarjan();
-            lock.lock();
-            ArrayList<Area> movable_areas = (ArrayList<Area>)r.getAreas_on_margin().clone();
+            ArrayList<Area> margin = new ArrayList<>(r.getAreas_on_margin());
             //take the intersect from all the articulation points and areas on the margin
-            movable_areas.removeAll(r_articulation_pts);
-            all_movable_units.addAll(movable_areas);
-            lock.unlock();
+            margin.removeAll(new AreaSet(r_articulation_pts));
+            movable_areas = margin;
         }
 
 
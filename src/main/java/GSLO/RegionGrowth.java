@@ -1,11 +1,13 @@
 package GSLO;
 
 import util.Area;
+import util.AreaGraph;
+import util.IndexedMinHeap;
+import util.Partition;
 import util.Region;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 
 /**
  * This class corresponds to Section 5.1.2 Region Growth
@@ -15,6 +17,8 @@ public class RegionGrowth {
     private Region[] regions;
     private long threshold;
     private ArrayList<Area> all_areas;
+    private AreaGraph graph;
+    private Partition partition;
     private int p;
 
     /**
@@ -24,37 +28,53 @@ public class RegionGrowth {
      * @param all_areas The input areas
      */
     public RegionGrowth(Seed seed , long threshold , ArrayList<Area> all_areas)
+    {
+        this(seed , threshold , new Partition(new AreaGraph(all_areas) , seed.get_seed_size()));
+    }
+
+    /**
+     *
+     * @param seed The seed obtained from the Seed Identification phase
+     * @param threshold The value on the user-defined constraint
+     * @param partition The empty partition of the input areas into seed.get_seed_size() regions, shared by the grown regions
+     */
+    public RegionGrowth(Seed seed , long threshold , Partition partition)
     {
         this.seed = seed;
         this.threshold = threshold;
         this.regions = new Region[seed.get_seed_size()];
-        this.all_areas = all_areas;
+        this.partition = partition;
+        this.graph = partition.get_graph();
+        this.all_areas = graph.get_areas();
         this.p = seed.get_seed_size();
     }
 
     /**
-     * This method grows the regions sequentially. In each iteration, the region with the min extensive attribute is selected to grow
+     * This method grows the regions sequentially. In each iteration, the region with the min extensive attribute is selected to grow.
+     * The growing regions are kept in an indexed min-heap keyed by the extensive attribute, and the unassigned neighbors of every region
+     * in a bucket queue keyed by the conn() value, so every step costs O(log p) plus the degree of the added area
      * @return the grown regions
      */
     public Region[] grow_region_robust()
     {
-        Comparator<Region> r_comparator = Comparator.comparingLong(Region::get_region_extensive_attr);
-
         for(int i = 0 ; i < regions.length ; i++)
         {
-            Region r = new Region(i , seed.get_seeds().get(i), threshold ,all_areas);
+            Region r = new Region(i , seed.get_seeds().get(i), threshold , partition);
             regions[i] = r;
         }
 
-        ArrayList<Region> growing_region = new ArrayList<>();
-        Collections.addAll(growing_region, regions);
-
-        growing_region.sort(r_comparator);
+        IndexedMinHeap growing_region = new IndexedMinHeap(regions.length);
+        Frontier[] frontiers = new Frontier[regions.length];
+        for(Region r : regions)
+        {
+            growing_region.add(r.get_region_index() , r.get_region_extensive_attr());
+            frontiers[r.get_region_index()] = new Frontier(r);
+        }
 
-        while(growing_region.size() > 0)
+        while(!growing_region.is_empty())
         {
-            Region region_to_grow = Collections.min(growing_region , r_comparator);
-            grow(region_to_grow , growing_region);
+            int region_to_grow = growing_region.peek();
+            grow(regions[region_to_grow] , frontiers[region_to_grow] , growing_region);
         }
         return regions;
     }
@@ -62,48 +82,116 @@ public class RegionGrowth {
     /**
      *
      * @param r the region currently selected to grow
+     * @param frontier the unassigned neighbors of r
      * @param all_growing_regions all the currently growing regions
      */
-    private void grow(Region r, ArrayList<Region> all_growing_regions)
+    private void grow(Region r , Frontier frontier , IndexedMinHeap all_growing_regions)
     {
         if(r.get_region_extensive_attr() > threshold)
         {
-            all_growing_regions.remove(r);
+            all_growing_regions.remove(r.get_region_index());
             return;
         }
 
-        Area area_to_add = greedy_grow(r);
+        Area area_to_add = frontier.poll_best();
 
         if(area_to_add == null)
         {
-            all_growing_regions.remove(r);
+            all_growing_regions.remove(r.get_region_index());
             return;
         }
         r.add_area_to_region(area_to_add);
+        all_growing_regions.update(r.get_region_index() , r.get_region_extensive_attr());
+        frontier.offer_neighbors(area_to_add);
     }
 
+
     /**
-     * The method locates the neighboring area of r that has the greatest conn() value
-     * @param r the currently growing region
-     * @return the unassigned area among r's neighbor that has the greatest conn() value
+     * This class is a bucket queue of the unassigned neighbors of a region, the k-th bucket holds the areas whose conn() value was k when they were offered,
+     * in the order they were offered. The ties are broken by the area whose conn() value reached k first, which is not the order of the neighboring areas
+     * of the region, so the grown regions may differ from a scan of the neighboring areas that keeps the first area with the greatest conn() value.
+     * The entries are not removed when an area is assigned to another region or when its conn() value grows, they are skipped when they are polled instead,
+     * so every entry is added and polled once, and the number of entries is bounded by the degrees of the areas of the region
      */
-    private Area greedy_grow(Region r)
+    private class Frontier
     {
-        ArrayList<Area> neighs = r.get_neigh_areas();
-        int optimal_connection = 0;
-        Area best_area = null;
+        private final Region r;
+        private int[][] buckets = new int[2][];
+        private int[] bucket_size = new int[2];
+        private int[] bucket_head = new int[2]; //the entries of the k-th bucket are buckets[k][bucket_head[k]] to buckets[k][bucket_size[k] - 1]
+        private int top; //no bucket above top holds an entry
 
-        for (Area current_area : neighs) {
-            if (current_area.get_associated_region_index() != -1) {
-                continue;
+        Frontier(Region r)
+        {
+            this.r = r;
+            for(Area area : r.get_areas_in_region())
+            {
+                offer_neighbors(area);
             }
-            int connection_num = r.compute_connection_num(current_area);
-            if (connection_num > optimal_connection) {
-                optimal_connection = connection_num;
-                best_area = current_area;
+        }
+
+        /**
+         * This method offers the unassigned neighbors of an area that has been added to the region, with their conn() values
+         */
+        void offer_neighbors(Area area)
+        {
+            int i = area.get_geo_index();
+            for(int k = graph.begin(i) ; k < graph.end(i) ; k++)
+            {
+                int neighbor = graph.neighbor(k);
+                if(partition.get_region(neighbor) == -1)
+                {
+                    push(neighbor , r.compute_connection_num(graph.get_area(neighbor)));
+                }
+            }
+        }
+
+        private void push(int area , int level)
+        {
+            if(level >= buckets.length)
+            {
+                int length = Math.max(level + 1 , 2 * buckets.length);
+                buckets = Arrays.copyOf(buckets , length);
+                bucket_size = Arrays.copyOf(bucket_size , length);
+                bucket_head = Arrays.copyOf(bucket_head , length);
+            }
+            if(buckets[level] == null)
+            {
+                buckets[level] = new int[4];
+            }
+            else if(bucket_size[level] == buckets[level].length)
+            {
+                buckets[level] = Arrays.copyOf(buckets[level] , 2 * buckets[level].length);
+            }
+            buckets[level][bucket_size[level]++] = area;
+            top = Math.max(top , level);
+        }
+
+        /**
+         * This method removes and returns the unassigned neighbor with the greatest conn() value
+         * @return the area, null if the region has no unassigned neighbor
+         */
+        Area poll_best()
+        {
+            while(top > 0)
+            {
+                if(bucket_head[top] == bucket_size[top])
+                {
+                    bucket_head[top] = 0;
+                    bucket_size[top] = 0;
+                    top--;
+                    continue;
+                }
+                int area = buckets[top][bucket_head[top]++];
+                //the area was assigned since it was offered, or it has been offered again with a greater conn() value
+                if(partition.get_region(area) != -1 || r.compute_connection_num(graph.get_area(area)) != top)
+                {
+                    continue;
+                }
+                return graph.get_area(area);
             }
+            return null;
         }
-        return best_area;
     }
 
 
@@ -3,7 +3,7 @@ package GSLO;
 import util.Area;
 
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * This prerequisite datastructure for Seed Identification
@@ -14,7 +14,13 @@ public class Seed implements Cloneable{
     private ArrayList<Area> not_seeds;
     private ArrayList<Area> all_geoareas;
     private double min_dist;
-    private Area[] min_pair_area;
+    private int[] min_pair_slot; //the positions in seeds of the two areas at the minimum distance
+    //the positions in seeds of the nearest and the second nearest seeded areas of every seeded area, and their distances
+    private int[] first;
+    private int[] second;
+    private double[] first_dist;
+    private double[] second_dist;
+    private SplittableRandom random;
 
     /**
      *
@@ -22,11 +28,22 @@ public class Seed implements Cloneable{
      * @param seed_size The number of areas in the seed.
      */
     public Seed(ArrayList<Area> all_geoareas , int seed_size)
+    {
+        this(all_geoareas , seed_size , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param all_geoareas The input areas
+     * @param seed_size The number of areas in the seed.
+     * @param random the random number generator of the initial seed and the replacements, it must not be shared with another thread
+     */
+    public Seed(ArrayList<Area> all_geoareas , int seed_size , SplittableRandom random)
     {
         this.all_geoareas = all_geoareas;
+        this.random = random;
         seeds = new ArrayList<>();
         this.seed_size = seed_size;
-        min_pair_area = new Area[2];
         select_initial_seeds(all_geoareas , seed_size);
     }
 
@@ -49,11 +66,19 @@ public class Seed implements Cloneable{
     private void select_initial_seeds(ArrayList<Area> areas_set , int seed_size)
     {
         int[] seed_index = choose_random_num(areas_set.size() , seed_size);
+        boolean[] seeded = new boolean[areas_set.size()];
         for (int current_index : seed_index) {
             seeds.add(areas_set.get(current_index));
+            seeded[current_index] = true;
+        }
+        not_seeds = new ArrayList<>(areas_set.size() - seed_size);
+        for(int i = 0 ; i < areas_set.size() ; i++)
+        {
+            if(!seeded[i])
+            {
+                not_seeds.add(areas_set.get(i));
+            }
         }
-        not_seeds = (ArrayList<Area>)all_geoareas.clone();
-        not_seeds.removeAll(seeds);
         min_dist = compute_min_dist();
     }
 
@@ -71,11 +96,10 @@ public class Seed implements Cloneable{
             source[i] = i;
         }
         int[] result = new int[n];
-        Random rd = new Random(System.currentTimeMillis());
         int index;
         for (int i = 0; i < result.length; i++)
         {
-            index = Math.abs(rd.nextInt() % len--);
+            index = random.nextInt(len--);
             result[i] = source[index];
             source[index] = source[len];
         }
@@ -84,62 +108,147 @@ public class Seed implements Cloneable{
 
 
     /**
-     * This method computes the minimum area-area pair distance of the seeded areas
+     * This method computes the minimum area-area pair distance of the seeded areas in O(p^2),
+     * together with the two nearest seeded areas of every seeded area that are used to evaluate the replacements in O(p)
      * @return the minimum area-area pair distance
      */
     public double compute_min_dist()
     {
+        int p = seeds.size();
+        first = new int[p];
+        second = new int[p];
+        first_dist = new double[p];
+        second_dist = new double[p];
+        min_pair_slot = new int[]{-1 , -1};
         double min_pair_dist = Double.MAX_VALUE;
-        for(int i = 0 ; i < seeds.size() ; i++)
+        for(int k = 0 ; k < p ; k++)
         {
-            for(int j = i+1 ; j < seeds.size() ; j++)
+            compute_nearest(k);
+            if(first_dist[k] < min_pair_dist)
             {
-                Area g1 = seeds.get(i);
-                Area g2 = seeds.get(j);
-                double dist = g1.compute_dist(g2);
-                if(dist < min_pair_dist)
-                {
-                    min_pair_dist = dist;
-                    min_pair_area[0] = g1;
-                    min_pair_area[1] = g2;
-                }
-
+                min_pair_dist = first_dist[k];
+                min_pair_slot[0] = k;
+                min_pair_slot[1] = first[k];
             }
         }
         return  min_pair_dist;
     }
 
+    /**
+     * This method finds the nearest and the second nearest seeded areas of the k-th seeded area in O(p)
+     */
+    private void compute_nearest(int k)
+    {
+        first[k] = -1;
+        second[k] = -1;
+        first_dist[k] = Double.MAX_VALUE;
+        second_dist[k] = Double.MAX_VALUE;
+        for(int l = 0 ; l < seeds.size() ; l++)
+        {
+            if(l != k)
+            {
+                offer(k , l , seeds.get(k).compute_dist(seeds.get(l)));
+            }
+        }
+    }
+
+    /**
+     * This method updates the two nearest seeded areas of the k-th seeded area with the l-th seeded area at the given distance
+     */
+    private void offer(int k , int l , double dist)
+    {
+        if(dist < first_dist[k])
+        {
+            second[k] = first[k];
+            second_dist[k] = first_dist[k];
+            first[k] = l;
+            first_dist[k] = dist;
+        }
+        else if(dist < second_dist[k])
+        {
+            second[k] = l;
+            second_dist[k] = dist;
+        }
+    }
+
     /**
      * This method randomly replace a seeded area by an unseeded area.
      * If after the replacement the min area-area pair distance is improved, then the replacement is accepted
-     * Otherwise, the replacement is not accepted
+     * Otherwise, the replacement is not accepted.
+     * The replacement is evaluated in O(p) from the two nearest seeded areas of every seeded area, without moving any area
      */
     public void random_replacement()
     {
-        Area area_in_seed = seeds.get(new Random(System.nanoTime()).nextInt(seeds.size()));
-        Area area_not_in_seed = not_seeds.get(new Random(System.nanoTime()).nextInt(not_seeds.size()));
-        replace_area(area_in_seed , area_not_in_seed);
+        int i = random.nextInt(seeds.size());
+        int j = random.nextInt(not_seeds.size());
 
-        double current_min_dist = compute_min_dist();
+        //the pair at the minimum distance stays in the seed, so the minimum distance cannot improve
+        if(i != min_pair_slot[0] && i != min_pair_slot[1])
+        {
+            return;
+        }
 
-        if(current_min_dist > min_dist)
+        Area area_not_in_seed = not_seeds.get(j);
+        double current_min_dist = Double.MAX_VALUE;
+        int[] current_min_pair = new int[]{-1 , -1};
+        double[] dist_to_new = new double[seeds.size()];
+        for(int k = 0 ; k < seeds.size() ; k++)
         {
-            min_dist = current_min_dist;
+            if(k == i)
+            {
+                continue;
+            }
+            //the nearest seeded area of k other than the replaced one
+            int nearest = first[k] != i ? first[k] : second[k];
+            double nearest_dist = first[k] != i ? first_dist[k] : second_dist[k];
+            if(nearest_dist < current_min_dist)
+            {
+                current_min_dist = nearest_dist;
+                current_min_pair[0] = k;
+                current_min_pair[1] = nearest;
+            }
+            dist_to_new[k] = area_not_in_seed.compute_dist(seeds.get(k));
+            if(dist_to_new[k] < current_min_dist)
+            {
+                current_min_dist = dist_to_new[k];
+                current_min_pair[0] = i;
+                current_min_pair[1] = k;
+            }
         }
 
-        else
+        if(current_min_dist > min_dist)
         {
-            replace_area(area_not_in_seed , area_in_seed);
+            min_dist = current_min_dist;
+            min_pair_slot = current_min_pair;
+            replace_area(i , j);
+            for(int k = 0 ; k < seeds.size() ; k++)
+            {
+                if(k == i)
+                {
+                    continue;
+                }
+                if(first[k] == i || second[k] == i)
+                {
+                    compute_nearest(k);
+                }
+                else
+                {
+                    offer(k , i , dist_to_new[k]);
+                }
+            }
+            compute_nearest(i);
         }
 
     }
 
-    public void replace_area(Area area_in_seed , Area area_not_in_seed)
+    /**
+     * This method exchanges the i-th seeded area with the j-th unseeded area in O(1), the other areas keep their positions
+     */
+    private void replace_area(int i , int j)
     {
-        seeds.remove(area_in_seed);
-        seeds.add(area_not_in_seed);
-        not_seeds.remove(area_not_in_seed);
-        not_seeds.add(area_in_seed);
+        Area area_in_seed = seeds.get(i);
+        seeds.set(i , not_seeds.get(j));
+        not_seeds.set(j , area_in_seed);
     }
 
 
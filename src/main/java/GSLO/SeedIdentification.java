@@ -2,11 +2,18 @@ package GSLO;
 
 
 import util.Area;
+import util.ConnectedComponents;
+import util.NearestSeedIndex;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -16,6 +23,7 @@ import java.util.Random;
 public class SeedIdentification {
     private ArrayList<Area> all_geoareas;
     private Seed best_seed;
+    private SplittableRandom random;
 
 
     /**
@@ -27,10 +35,43 @@ public class SeedIdentification {
      * @param detect_island whether or not to consider island areas in the dataset
      */
     public SeedIdentification(ArrayList<Area> all_areas , int seed_num , int max_iter , boolean kmeanspp , boolean detect_island) {
+        this(all_areas , seed_num , max_iter , kmeanspp , detect_island , false);
+    }
+
+    /**
+     *
+     * @param all_areas the input areas
+     * @param seed_num the number of seeded area, which equals to the number of predefined regions, p
+     * @param max_iter the maximum number of iteration in Seed Identification, when set to 0 means random seeding
+     * @param kmeanspp whether or not to use the k-mean ++ seeding
+     * @param detect_island whether or not to consider island areas in the dataset
+     * @param farthest_point whether or not to use the deterministic farthest-point seeding, it is ignored when detect_island is set
+     */
+    public SeedIdentification(ArrayList<Area> all_areas , int seed_num , int max_iter , boolean kmeanspp , boolean detect_island , boolean farthest_point) {
+        this(all_areas , seed_num , max_iter , kmeanspp , detect_island , farthest_point , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param all_areas the input areas
+     * @param seed_num the number of seeded area, which equals to the number of predefined regions, p
+     * @param max_iter the maximum number of iteration in Seed Identification, when set to 0 means random seeding
+     * @param kmeanspp whether or not to use the k-mean ++ seeding
+     * @param detect_island whether or not to consider island areas in the dataset
+     * @param farthest_point whether or not to use the deterministic farthest-point seeding, it is ignored when detect_island is set
+     * @param random the random number generator of the seeding
+     */
+    public SeedIdentification(ArrayList<Area> all_areas , int seed_num , int max_iter , boolean kmeanspp , boolean detect_island , boolean farthest_point , SplittableRandom random) {
         this.all_geoareas = all_areas;
+        this.random = random;
         if(!detect_island)
         {
-            if(!kmeanspp)
+            if(farthest_point)
+            {
+                this.best_seed = farthest_point_seeding(all_areas , seed_num);
+            }
+
+            else if(!kmeanspp)
             {
                 this.best_seed = naive_seed_selection(all_areas , seed_num , max_iter);
             }
@@ -48,6 +89,22 @@ public class SeedIdentification {
     }
 
 
+    /**
+     * This constructor runs the multi-start Seed Identification, see multi_start_seed_selection
+     * @param all_areas the input areas
+     * @param seed_num the number of seeded area, which equals to the number of predefined regions, p
+     * @param max_iter the maximum number of iteration of every start
+     * @param start_num the number of independent starts
+     * @param target_dist the minimum pair distance at which all the starts stop, 0 or less never stops early
+     * @param random the random number generator that is split into the streams of the starts
+     */
+    public SeedIdentification(ArrayList<Area> all_areas , int seed_num , int max_iter , int start_num , double target_dist , SplittableRandom random) {
+        this.all_geoareas = all_areas;
+        this.random = random;
+        this.best_seed = multi_start_seed_selection(all_areas , seed_num , max_iter , start_num , target_dist , random);
+    }
+
+
     /**
      *
      * @param all_areas the input areas
@@ -60,18 +117,10 @@ public class SeedIdentification {
         ArrayList<ConnectedComponent> ccs = new ArrayList<>();
         Comparator<ConnectedComponent> cc_comparator = Comparator.comparingLong(ConnectedComponent::getTotal_ext);
 
-        ArrayList<Area> unvisited = (ArrayList<Area>) (all_areas.clone());
-        while(unvisited.size() > 0)
+        ConnectedComponents components = new ConnectedComponents(all_areas);
+        for(int c = 0 ; c < components.get_component_num() ; c++)
         {
-            Area a = unvisited.get(new Random().nextInt(unvisited.size()));
-            ArrayList<Area> visited = find_connected_component(a);
-            long cc_ext = 0;
-            for(Area cc_a : visited)
-            {
-                cc_ext += cc_a.get_extensive_attr();
-            }
-            ccs.add(new ConnectedComponent(visited, cc_ext));
-            unvisited.removeAll(visited);
+            ccs.add(new ConnectedComponent(components.get_areas(c , all_areas) , components.get_total_ext(c)));
         }
 
         ccs.sort(cc_comparator);
@@ -113,29 +162,9 @@ public class SeedIdentification {
         return new Seed(all_seed_areas);
     }
 
-    public ArrayList<Area> find_connected_component(Area area)
-    {
-        HashSet<Area> visited = new HashSet<>();
-        DFS(area , visited);
-        return new ArrayList<>(visited);
-    }
-
-    public void DFS(Area area , HashSet<Area> visited)
-    {
-        visited.add(area);
-        for(Area neigh_area : area.get_neigh_area(all_geoareas))
-        {
-            if(!visited.contains(neigh_area))
-            {
-                DFS(neigh_area , visited);
-            }
-        }
-    }
-
-
     public Seed naive_seed_selection(ArrayList<Area> all_areas , int s_num , int maxiter)
     {
-        Seed seed = new Seed(all_areas , s_num);
+        Seed seed = new Seed(all_areas , s_num , random);
         int iter_time = 0;
         while(iter_time < maxiter)
         {
@@ -145,59 +174,122 @@ public class SeedIdentification {
         return seed;
     }
 
+    /**
+     * This method runs a number of independent naive_seed_selection searches on a thread pool and keeps the seed with the greatest minimum pair distance.
+     * Every start has its own stream split from the given random number generator, so the starts do not share any state.
+     * When a start reaches the target distance, all the starts stop after their current iteration
+     * @param all_areas the input areas
+     * @param s_num the number of areas in the seed
+     * @param maxiter the maximum number of iterations of every start
+     * @param start_num the number of starts
+     * @param target_dist the minimum pair distance at which all the starts stop, 0 or less never stops early
+     * @param random the random number generator that is split into the streams of the starts
+     * @return the selected seed, the one of the first start on ties
+     */
+    public Seed multi_start_seed_selection(ArrayList<Area> all_areas , int s_num , int maxiter , int start_num , double target_dist , SplittableRandom random)
+    {
+        AtomicBoolean stop = new AtomicBoolean(false);
+        ExecutorService threadPool = Executors.newFixedThreadPool(Math.max(1 , Math.min(start_num , Runtime.getRuntime().availableProcessors())));
+        ArrayList<Future<Seed>> results = new ArrayList<>();
+        Seed best = null;
+        try {
+            for(int s = 0 ; s < Math.max(1 , start_num) ; s++)
+            {
+                results.add(threadPool.submit(new SeedSearch(all_areas , s_num , maxiter , target_dist , random.split() , stop)));
+            }
+            for(Future<Seed> result : results)
+            {
+                Seed seed = result.get();
+                if(best == null || seed.get_min_dist() > best.get_min_dist())
+                {
+                    best = seed;
+                }
+            }
+        }
+        catch (ExecutionException e) {
+            throw new RuntimeException("failed to identify the seed", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while identifying the seed", e);
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
+        return best;
+    }
+
 
+    /**
+     * This method selects the seeded areas by the k-means++ seeding, every new seeded area is sampled with a probability proportional to the squared distance
+     * to its nearest seeded area. The distances are kept by a NearestSeedIndex, so a new seeded area only updates the areas around it
+     * @param all_areas the input areas
+     * @param s_num the number of areas in the seed
+     * @return the selected seed
+     */
     public Seed kmeanspp(ArrayList<Area> all_areas , int s_num)
     {
-        Area init_area = all_areas.get(new Random().nextInt(all_areas.size()));
+        NearestSeedIndex index = new NearestSeedIndex(all_areas);
         ArrayList<Area> seeded_areas = new ArrayList<>();
-        seeded_areas.add(init_area);
+        int init_area = random.nextInt(all_areas.size());
+        index.add_seed(init_area);
+        seeded_areas.add(all_areas.get(init_area));
         while(seeded_areas.size() < s_num)
         {
-            ArrayList<Area> unseeded_areas = new ArrayList<>();
-            ArrayList<Double> dists = new ArrayList<>();
-            double total_dist = 0;
-            for(Area a : all_areas)
+            int selected_area = index.sample(random.nextDouble());
+            if(selected_area == -1)
             {
-                if(!seeded_areas.contains(a))
-                {
-                    double min_dist_to_seed = Long.MAX_VALUE;
-                    for(Area seed_a :seeded_areas)
-                    {
-                        double dist = a.compute_dist(seed_a);
-                        if(dist < min_dist_to_seed)
-                        {
-                            min_dist_to_seed = dist;
-                        }
-                    }
-                    unseeded_areas.add(a);
-                    dists.add(min_dist_to_seed);
-                    total_dist += (min_dist_to_seed * min_dist_to_seed);
-                }
+                selected_area = index.first_unseeded(); //all the unseeded areas have the centroid of a seeded area
             }
+            index.add_seed(selected_area);
+            seeded_areas.add(all_areas.get(selected_area));
+        }
+
+        return new Seed(seeded_areas);
+    }
 
-            double random_num = new Random().nextDouble();
-            double accu = 0;
-            Area selected_area = null;
-            for(int i = 0 ; i < unseeded_areas.size() ; i++)
+    /**
+     * This method selects the seeded areas by the farthest-point (maxmin) seeding. The first seeded area is the area closest to the mean of the centroids,
+     * and every new seeded area is the area farthest from its nearest seeded area, so the seed is the same in every run
+     * @param all_areas the input areas
+     * @param s_num the number of areas in the seed
+     * @return the selected seed
+     */
+    public Seed farthest_point_seeding(ArrayList<Area> all_areas , int s_num)
+    {
+        double mean_x = 0;
+        double mean_y = 0;
+        for(Area area : all_areas)
+        {
+            mean_x += area.get_centroid().getX() / all_areas.size();
+            mean_y += area.get_centroid().getY() / all_areas.size();
+        }
+        int init_area = 0;
+        double init_dist = Double.MAX_VALUE;
+        for(int i = 0 ; i < all_areas.size() ; i++)
+        {
+            double dx = all_areas.get(i).get_centroid().getX() - mean_x;
+            double dy = all_areas.get(i).get_centroid().getY() - mean_y;
+            if(dx * dx + dy * dy < init_dist)
             {
-                double d = dists.get(i);
-                double prob = d * d / total_dist;
-                if(random_num >= accu && random_num <= accu + prob)
-                {
-                    selected_area = unseeded_areas.get(i);
-                    break;
-                }
-                accu += prob;
+                init_dist = dx * dx + dy * dy;
+                init_area = i;
             }
+        }
 
-
-
-            if(selected_area == null)
+        NearestSeedIndex index = new NearestSeedIndex(all_areas);
+        ArrayList<Area> seeded_areas = new ArrayList<>();
+        index.add_seed(init_area);
+        seeded_areas.add(all_areas.get(init_area));
+        while(seeded_areas.size() < s_num)
+        {
+            int selected_area = index.farthest();
+            if(index.is_seeded(selected_area))
             {
-                selected_area = seeded_areas.get(seeded_areas.size() - 1);
+                selected_area = index.first_unseeded(); //all the unseeded areas have the centroid of a seeded area
             }
-            seeded_areas.add(selected_area);
-
+            index.add_seed(selected_area);
+            seeded_areas.add(all_areas.get(selected_area));
         }
 
         return new Seed(seeded_areas);
@@ -208,6 +300,46 @@ public class SeedIdentification {
     }
 
 
+    /**
+     * One start of the multi-start Seed Identification
+     */
+    static class SeedSearch implements Callable<Seed> {
+        private final ArrayList<Area> all_areas;
+        private final int s_num;
+        private final int maxiter;
+        private final double target_dist;
+        private final SplittableRandom random;
+        private final AtomicBoolean stop;
+
+        SeedSearch(ArrayList<Area> all_areas , int s_num , int maxiter , double target_dist , SplittableRandom random , AtomicBoolean stop)
+        {
+            this.all_areas = all_areas;
+            this.s_num = s_num;
+            this.maxiter = maxiter;
+            this.target_dist = target_dist;
+            this.random = random;
+            this.stop = stop;
+        }
+
+        @Override
+        public Seed call()
+        {
+            Seed seed = new Seed(all_areas , s_num , random);
+            int iter_time = 0;
+            while(iter_time < maxiter && !stop.get())
+            {
+                seed.random_replacement();
+                if(target_dist > 0 && seed.get_min_dist() >= target_dist)
+                {
+                    stop.set(true);
+                }
+                iter_time ++;
+            }
+            return seed;
+        }
+    }
+
+
     static class ConnectedComponent{
         ArrayList<Area> areas_in_cc;
         long total_ext;
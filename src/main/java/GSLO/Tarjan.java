@@ -1,6 +1,8 @@
 package GSLO;
 
 import util.Area;
+import util.AreaGraph;
+import util.AreaSet;
 import util.Region;
 
 import java.util.ArrayList;
@@ -13,13 +15,15 @@ public class Tarjan
 {
     Region r;
     ArrayList<Area> all_areas;
-    ArrayList<Area> areas_in_r;
+    AreaGraph graph;
+    AreaSet areas_in_r;
     int time;
 
     public Tarjan(Region r , ArrayList<Area> all_areas)
     {
         this.r = r;
         this.all_areas = all_areas;
+        this.graph = AreaGraph.of(new Region[]{r} , all_areas);
         areas_in_r = r.get_areas_in_region();
         time = 0;
     }
@@ -42,11 +46,16 @@ public class Tarjan
         boolean[] articulation_label = new boolean[size];
         Arrays.fill(articulation_label , false);
 
+        //the depth-first search keeps its own stack, so a large region does not overflow the thread stack
+        int[] stack = new int[size];
+        int[] cursor = new int[size];
+        int[] children = new int[size];
+
         for(int i = 0 ; i < size ; i++)
         {
             if(disc[i] == -1)
             {
-                DFS(i , disc , low, parent , articulation_label);
+                DFS(i , disc , low , parent , articulation_label , stack , cursor , children);
             }
         }
 
@@ -62,34 +71,38 @@ public class Tarjan
 
     }
 
-    private void DFS(int u , int[] disc, int[] low, int[] parent, boolean[] articulation_label)
+    /**
+     * This method visits the areas reachable from the root, cursor[u] is the position of the next neighbor of u to visit (see AreaGraph.begin)
+     */
+    private void DFS(int root , int[] disc, int[] low, int[] parent, boolean[] articulation_label , int[] stack , int[] cursor , int[] children)
     {
-        disc[u] = low[u] = time;
+        int top = 0;
+        disc[root] = low[root] = time;
         time += 1;
-        int children = 0;
+        cursor[root] = graph.begin(areas_in_r.get(root).get_geo_index());
+        stack[top++] = root;
 
-        for(Area neigh_area : areas_in_r.get(u).get_neigh_area(all_areas))
+        while(top > 0)
         {
-            if(areas_in_r.contains(neigh_area))
+            int u = stack[top - 1];
+            if(cursor[u] < graph.end(areas_in_r.get(u).get_geo_index()))
             {
+                Area neigh_area = graph.get_area(graph.neighbor(cursor[u]));
+                cursor[u]++;
                 int v = areas_in_r.indexOf(neigh_area);
+                if(v == -1)
+                {
+                    continue;
+                }
 
                 if(disc[v] == -1)
                 {
-                    children += 1;
+                    children[u] += 1;
                     parent[v] = u;
-                    DFS(v , disc , low , parent , articulation_label);
-                    low[u] = Math.min(low[u] , low[v]);
-
-                    if(parent[u] == -1 && children > 1)
-                    {
-                        articulation_label[u] = true;
-                    }
-
-                    if(parent[u] != -1 && low[v] >= disc[u])
-                    {
-                        articulation_label[u] = true;
-                    }
+                    disc[v] = low[v] = time;
+                    time += 1;
+                    cursor[v] = graph.begin(neigh_area.get_geo_index());
+                    stack[top++] = v;
                 }
 
                 else if(v != parent[u])
@@ -97,7 +110,26 @@ public class Tarjan
                     low[u] = Math.min(low[u] , disc[v]);
                 }
             }
+
+            else
+            {
+                //all the neighbors of u are visited, return to its parent
+                top--;
+                int p = parent[u];
+                if(p != -1)
+                {
+                    low[p] = Math.min(low[p] , low[u]);
+                    if(parent[p] != -1 && low[u] >= disc[p])
+                    {
+                        articulation_label[p] = true;
+                    }
+                }
+            }
         }
-    }
 
+        if(children[root] > 1)
+        {
+            articulation_label[root] = true;
+        }
+    }
 }
\ No newline at end of file
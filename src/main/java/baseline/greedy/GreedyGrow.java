@@ -2,6 +2,9 @@ package baseline.greedy;
 
 import GSLO.Seed;
 import util.Area;
+import util.AreaSet;
+import util.AreaGraph;
+import util.Partition;
 import util.Region;
 
 import java.util.ArrayList;
@@ -17,6 +20,7 @@ public class GreedyGrow {
     private Region[] regions;
     private long threshold;
     private ArrayList<Area> all_areas;
+    private Partition partition;
     private int p;
 
     public GreedyGrow(Seed seed , long threshold , ArrayList<Area> all_areas)
@@ -37,9 +41,10 @@ public class GreedyGrow {
     {
         Comparator<Region> r_comparator = Comparator.comparingLong(r -> r.get_region_extensive_attr());
 
+        partition = new Partition(new AreaGraph(all_areas) , regions.length);
         for(int i = 0 ; i < regions.length ; i++)
         {
-            Region r = new Region(i , seed.get_seeds().get(i), threshold , all_areas);
+            Region r = new Region(i , seed.get_seeds().get(i), threshold , partition);
             regions[i] = r;
         }
 
@@ -88,11 +93,11 @@ public class GreedyGrow {
      */
     private Area greedy_grow(Region r)
     {
-        ArrayList<Area> neighs = r.get_neigh_areas();
+        AreaSet neighs = r.get_neigh_areas();
         long best_hetero_incre = Long.MAX_VALUE;
         Area best_area = null;
         for (Area current_area : neighs) {
-            if (current_area.get_associated_region_index() != -1) {
+            if (partition.get_region(current_area) != -1) {
                 continue;
             }
             long hetero_incre = r.compute_hetero_incre(current_area);
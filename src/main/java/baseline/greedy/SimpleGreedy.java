@@ -4,11 +4,10 @@ import GSLO.EnclavesAssignment;
 import GSLO.Seed;
 import GSLO.SeedIdentification;
 import util.Area;
+import util.ConnectedComponents;
 import util.Region;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Random;
 
 /**
  * This class corresponds to the simple greedy baseline to solve PRUC in Section 7
@@ -80,45 +79,20 @@ public class SimpleGreedy {
      */
     public boolean check_island_seed(Seed s , ArrayList<Area> all_areas)
     {
-        ArrayList<Area> unvisited = (ArrayList<Area>) (all_areas.clone());
-
-        while(unvisited.size() > 0)
+        ConnectedComponents components = new ConnectedComponents(all_areas);
+        boolean[] seeded = new boolean[components.get_component_num()];
+        for(Area seed_area : s.get_seeds())
         {
-            Area a = unvisited.get(new Random().nextInt(unvisited.size()));
-            ArrayList<Area> visited = find_connected_component(a);
-            ArrayList<Area> seed_copy = (ArrayList<Area>) s.get_seeds().clone();
-            seed_copy.removeAll(visited);
-            if(seed_copy.size() == s.get_seeds().size())
-            {
-                return true;
-            }
-
-
-            unvisited.removeAll(visited);
+            seeded[components.get_component(seed_area.get_geo_index())] = true;
         }
-
-        return false;
-
-
-    }
-
-    public ArrayList<Area> find_connected_component(Area area)
-    {
-        HashSet<Area> visited = new HashSet<>();
-        DFS(area , visited);
-        return new ArrayList<>(visited);
-    }
-
-    public void DFS(Area area , HashSet<Area> visited)
-    {
-        visited.add(area);
-        for(Area neigh_area : area.get_neigh_area(all_areas))
+        for(boolean has_seed : seeded)
         {
-            if(!visited.contains(neigh_area))
+            if(!has_seed)
             {
-                DFS(neigh_area , visited);
+                return true;
             }
         }
+        return false;
     }
 
 
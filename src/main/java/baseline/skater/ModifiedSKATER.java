@@ -18,6 +18,7 @@ public class ModifiedSKATER {
     private long threshold;
     private long runtime;
     private ArrayList<Tree> trees;
+    private SpanningTree tree; //the edges of the tree being partitioned, the neighbors of the areas are not modified
 
 
     /**
@@ -26,7 +27,7 @@ public class ModifiedSKATER {
      * @param sc the parameter that controls the stopping condition in the original SKATER paper
      * @param p the number of predefined regions
      * @param threshold the value on the user-defined constraint, when threshold is set to 0, the modified SKATER becomes SKATER
-     * @param skatercon whether to run SKATER alone or run the SKATER for the input of SKATERCON
+     * @param skatercon whether to run SKATER alone or run the SKATER for the input of SKATERCON, in which case the neighboring relations of the areas form the tree
      */
     public ModifiedSKATER(ArrayList<Area> areas, int sc, int p, long threshold, boolean skatercon)
     {
@@ -46,7 +47,7 @@ public class ModifiedSKATER {
 
         else
         {
-
+            this.tree = SpanningTree.of(areas);
             Tree initial_tree = new Tree(areas);
             trees = tree_partitioning(initial_tree);
 
@@ -54,6 +55,24 @@ public class ModifiedSKATER {
 
     }
 
+    /**
+     * This constructor runs the SKATER on a given spanning tree, which is the input of SKATERCON
+     * @param areas The input areas
+     * @param tree the spanning tree of the areas, its edges are removed while the tree is partitioned
+     * @param sc the parameter that controls the stopping condition in the original SKATER paper
+     * @param p the number of predefined regions
+     * @param threshold the value on the user-defined constraint
+     */
+    public ModifiedSKATER(ArrayList<Area> areas , SpanningTree tree , int sc , int p , long threshold)
+    {
+        this.all_areas = areas;
+        this.tree = tree;
+        this.threshold = threshold;
+        this.sc = sc;
+        this.p = p;
+        trees = tree_partitioning(new Tree(areas));
+    }
+
 
 
 
@@ -69,7 +88,7 @@ public class ModifiedSKATER {
 
         for(int i = 0 ; i < all_areas.size() - 1 ; i++)
         {
-            if(initial_area.get_neigh_area_index().contains(i))
+            if(initial_area.is_neighbor(i))
             {
                 imp.insert(i+1 , initial_area.compute_hetero(all_areas.get(i)));
             }
@@ -102,18 +121,11 @@ public class ModifiedSKATER {
             }
         }
 
-        for(Area g : all_areas)
-        {
-            g.initialize_neighbor();
-        }
-
-        //reconstruct the neighborhood relationship using the neighborhood relationship stored in the edge
+        //the tree keeps the neighborhood relationship stored in the edges, the areas keep their own neighbors
+        tree = new SpanningTree(all_areas.size());
         for(Edge e : added_edges)
         {
-            int from = e.get_from();
-            int to = e.get_to();
-            all_areas.get(from).add_neighbor(to);
-            all_areas.get(to).add_neighbor(from);
+            tree.add_edge(e.get_from() , e.get_to());
         }
 
         return new Tree(all_areas);
@@ -183,8 +195,7 @@ public class ModifiedSKATER {
                 trees.add(t2);
                 int from = best_edge.get_from();
                 int to = best_edge.get_to();
-                all_areas.get(from).get_neigh_area_index().remove(Integer.valueOf(to));
-                all_areas.get(to).get_neigh_area_index().remove(Integer.valueOf(from));
+                tree.remove_edge(from , to);
             }
 
             current_tree_num ++;
@@ -221,8 +232,9 @@ public class ModifiedSKATER {
 
             long best_neighbor_f2 = 0;
             Area next_to_expand = null;
-            for(Area neigh : visiting_area.get_neigh_area(all_areas))
+            for(int k = 0 ; k < tree.get_degree(visiting_area.get_geo_index()) ; k++)
             {
+                Area neigh = all_areas.get(tree.get_neighbor(visiting_area.get_geo_index() , k));
                 //make sure that we do not revisit a visited area
                 if(visited.contains(neigh))
                 {
@@ -328,8 +340,9 @@ public class ModifiedSKATER {
 
         for(Area v : vertices)
         {
-            for(Area w : v.get_neigh_area(all_areas))
+            for(int k = 0 ; k < tree.get_degree(v.get_geo_index()) ; k++)
             {
+                Area w = all_areas.get(tree.get_neighbor(v.get_geo_index() , k));
                 if(visited_edges.contains(new Edge(v.get_geo_index() ,w.get_geo_index())))
                 {
                     continue;
@@ -365,8 +378,9 @@ public class ModifiedSKATER {
     private void DFS(Area area_visit , ArrayList<Area> vertices , boolean[] visited , int from, int to)
     {
         visited[vertices.indexOf(area_visit)] = true;
-        for(Area neigh : area_visit.get_neigh_area(all_areas))
+        for(int k = 0 ; k < tree.get_degree(area_visit.get_geo_index()) ; k++)
         {
+            Area neigh = all_areas.get(tree.get_neighbor(area_visit.get_geo_index() , k));
             if(!visited[vertices.indexOf(neigh)])
             {
                 if((area_visit.get_geo_index() == from && neigh.get_geo_index() == to) || (area_visit.get_geo_index() == to && neigh.get_geo_index() == from))
@@ -380,15 +394,7 @@ public class ModifiedSKATER {
 
     private long compute_hetero(ArrayList<Area> areas)
     {
-        long hetero = 0;
-        for(int i = 0; i < areas.size() ; i++)
-        {
-            for(int j = i + 1; j < areas.size() ; j++)
-            {
-                hetero += Math.abs(areas.get(i).get_internal_attr() - areas.get(j).get_internal_attr());
-            }
-        }
-        return hetero;
+        return Region.compute_hetero(areas);
     }
 
 
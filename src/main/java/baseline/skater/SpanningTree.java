@@ -0,0 +1,94 @@
+package baseline.skater;
+
+import util.Area;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class holds the edges of a spanning tree (or of a forest after some edges are cut) over the areas, indexed by the geo index.
+ * The tree algorithms rewrite these edges instead of the neighbors of the areas, so the areas and their neighboring relations stay untouched
+ */
+public class SpanningTree {
+
+    private final int[][] neighbors;
+    private final int[] degree;
+
+    /**
+     * @param n the number of areas, the tree has no edge at the beginning
+     */
+    public SpanningTree(int n)
+    {
+        neighbors = new int[n][];
+        degree = new int[n];
+        for(int i = 0 ; i < n ; i++)
+        {
+            neighbors[i] = new int[2];
+        }
+    }
+
+    /**
+     * This method copies the neighboring relations of the areas, e.g. when the graph of the areas is already a tree
+     * @param areas the areas, the i-th area has the geo index i
+     * @return the edges between the areas
+     */
+    public static SpanningTree of(ArrayList<Area> areas)
+    {
+        SpanningTree tree = new SpanningTree(areas.size());
+        for(int i = 0 ; i < areas.size() ; i++)
+        {
+            int[] neigh_index = areas.get(i).get_neigh_area_index();
+            tree.neighbors[i] = Arrays.copyOf(neigh_index , Math.max(neigh_index.length , 2));
+            tree.degree[i] = neigh_index.length;
+        }
+        return tree;
+    }
+
+    public void add_edge(int u , int v)
+    {
+        append(u , v);
+        append(v , u);
+    }
+
+    /**
+     * This method removes the edge between u and v, the order of the other neighbors is kept
+     */
+    public void remove_edge(int u , int v)
+    {
+        delete(u , v);
+        delete(v , u);
+    }
+
+    public int get_degree(int u) { return degree[u]; }
+
+    /**
+     * @param u the geo index of an area
+     * @param k the position of the neighbor, between 0 and get_degree(u) - 1
+     * @return the geo index of the k-th neighbor of u in the tree
+     */
+    public int get_neighbor(int u , int k) { return neighbors[u][k]; }
+
+    public int size() { return degree.length; }
+
+    private void append(int u , int v)
+    {
+        if(degree[u] == neighbors[u].length)
+        {
+            neighbors[u] = Arrays.copyOf(neighbors[u] , degree[u] * 2);
+        }
+        neighbors[u][degree[u]++] = v;
+    }
+
+    private void delete(int u , int v)
+    {
+        for(int k = 0 ; k < degree[u] ; k++)
+        {
+            if(neighbors[u][k] == v)
+            {
+                System.arraycopy(neighbors[u] , k + 1 , neighbors[u] , k , degree[u] - k - 1);
+                degree[u]--;
+                return;
+            }
+        }
+    }
+}
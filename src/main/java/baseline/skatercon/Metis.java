@@ -1,6 +1,7 @@
 package baseline.skatercon;
 
 import util.Area;
+import util.AreaSet;
 import util.Region;
 
 import java.util.*;
@@ -16,9 +17,24 @@ public class Metis {
     private int coarsen_threshold;
     private int p;
     private long threshold;
+    private SplittableRandom random;
 
     public Metis(ArrayList<Area> all_areas_clean , ArrayList<Region[]> regions_set , int p , int coarsen_threshold , long threshold) throws CloneNotSupportedException {
-        this.all_areas = Area.area_list_copy(all_areas_clean);
+        this(all_areas_clean , regions_set , p , coarsen_threshold , threshold , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param all_areas_clean the input areas
+     * @param regions_set the regions found on the random spanning trees
+     * @param p the number of regions
+     * @param coarsen_threshold the number of vertices at which the coarsening stops
+     * @param threshold the threshold on the user-defined value
+     * @param random the random number generator of the matchings and of the initial partitions
+     */
+    public Metis(ArrayList<Area> all_areas_clean , ArrayList<Region[]> regions_set , int p , int coarsen_threshold , long threshold , SplittableRandom random) throws CloneNotSupportedException {
+        this.random = random;
+        this.all_areas = all_areas_clean;
         this.regions_set = regions_set;
         this.coarsen_threshold = coarsen_threshold;
         this.p = p;
@@ -183,7 +199,7 @@ public class Metis {
         {
             for(Region r : regions)
             {
-                ArrayList<Area> areas_in_r = r.get_areas_in_region();
+                AreaSet areas_in_r = r.get_areas_in_region();
                 for(int i = 0 ; i < areas_in_r.size() ; i++)
                 {
                     for(int j = i + 1 ; j < areas_in_r.size() ; j++)
@@ -191,7 +207,7 @@ public class Metis {
                         Area g1 = all_areas.get(areas_in_r.get(i).get_geo_index());
                         Area g2 = all_areas.get(areas_in_r.get(j).get_geo_index());
 
-                        if(g1.get_neigh_area_index().contains(g2.get_geo_index()))
+                        if(g1.is_neighbor(g2.get_geo_index()))
                         {
                             int v1_index = g1.get_geo_index();
                             int v2_index = g2.get_geo_index();
@@ -359,11 +375,10 @@ public class Metis {
             source[i] = i;
         }
         int[] result = new int[n];
-        Random rd = new Random(System.nanoTime());
         int index;
         for (int i = 0; i < result.length; i++)
         {
-            index = Math.abs(rd.nextInt() % len--);
+            index = random.nextInt(len--);
             result[i] = source[index];
             source[index] = source[len];
         }
@@ -481,7 +496,7 @@ public class Metis {
 
         int half_total_weight = total_weight / 2;
 
-        Vertex starting_v = vertices.get(new Random(System.nanoTime()).nextInt(vertices.size()));
+        Vertex starting_v = vertices.get(random.nextInt(vertices.size()));
         in_partition[starting_v.getIndex()] = true;
         vertices_in_partition.add(starting_v);
 
@@ -3,8 +3,10 @@ package baseline.skatercon;
 import util.Area;
 import util.Region;
 import baseline.skater.ModifiedSKATER;
+import baseline.skater.SpanningTree;
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 /**
  * This class implements the Modified SKATERCON as one of our baseline algorithms
@@ -20,6 +22,7 @@ public class ModifiedSKATERCON {
     private int sc;
     private int p;
     private long threshold;
+    private SplittableRandom random;
 
     /**
      *
@@ -29,7 +32,26 @@ public class ModifiedSKATERCON {
      * @param threshold The threshold on the user-defined value, when set to 0, the Modified SAKTERCON becomes SKATERCON
      */
     public ModifiedSKATERCON(ArrayList<Area> all_areas, int sc , int p , long threshold) throws InterruptedException, CloneNotSupportedException {
+        this(all_areas , sc , p , threshold , new SplittableRandom());
+    }
+
+    /**
+     *
+     * @param all_areas The input areas
+     * @param sc The sc parameter in SKATER
+     * @param p The number of regions
+     * @param threshold The threshold on the user-defined value, when set to 0, the Modified SAKTERCON becomes SKATERCON
+     * @param random The random number generator, every thread uses its own stream split from it, so the same seed gives the same regions
+     */
+    public ModifiedSKATERCON(ArrayList<Area> all_areas, int sc , int p , long threshold , SplittableRandom random) throws InterruptedException, CloneNotSupportedException {
         long start_runtime = System.currentTimeMillis();
+        //a random spanning tree cannot cover a dataset with islands, so there is no solution
+        if(!is_connected(all_areas))
+        {
+            final_regions = null;
+            runtime = System.currentTimeMillis() - start_runtime;
+            return;
+        }
         this.thread_num = 8; //the number of random spanning generated, we parallelize this step by generating RSTs and run skater on them in different threads, we set this number of be the number of processors available
         this.all_areas = all_areas;
         this.skater_results = new Region[thread_num][];
@@ -37,6 +59,7 @@ public class ModifiedSKATERCON {
         this.sc = sc;
         this.p = p;
         this.threshold = threshold;
+        this.random = random;
         skater_con_run();
         long end_runtime = System.currentTimeMillis();
         runtime = end_runtime - start_runtime;
@@ -47,6 +70,38 @@ public class ModifiedSKATERCON {
         return runtime;
     }
 
+    /**
+     * This method checks whether all the areas are reached by a breadth-first search from the first area
+     * @param areas the input areas
+     * @return true if the areas form one connected component
+     */
+    private static boolean is_connected(ArrayList<Area> areas)
+    {
+        if(areas.isEmpty())
+        {
+            return true;
+        }
+        boolean[] visited = new boolean[areas.size()];
+        int[] queue = new int[areas.size()];
+        int head = 0;
+        int tail = 0;
+        visited[0] = true;
+        queue[tail++] = 0;
+        while(head < tail)
+        {
+            int u = queue[head++];
+            for(int v : areas.get(u).get_neigh_area_index())
+            {
+                if(!visited[v])
+                {
+                    visited[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return tail == areas.size();
+    }
+
 
     private void skater_con_run() throws CloneNotSupportedException, InterruptedException {
         Parallel_SKATERCON[] skater_threads = new Parallel_SKATERCON[thread_num];
@@ -54,7 +109,7 @@ public class ModifiedSKATERCON {
 
         for(int i = 0 ; i < thread_num ; i++)
         {
-            skater_threads[i] = new Parallel_SKATERCON(i , all_areas , sc , p , skater_results);
+            skater_threads[i] = new Parallel_SKATERCON(i , all_areas , sc , p , skater_results , random.split());
             skater_threads[i].start();
         }
 
@@ -89,7 +144,7 @@ public class ModifiedSKATERCON {
         }
 
 
-        this.final_regions = new Metis(all_areas , regions_sets , p , coarsen_threshold , threshold).Metis_start();
+        this.final_regions = new Metis(all_areas , regions_sets , p , coarsen_threshold , threshold , random).Metis_start();
     }
 
     public Region[] getFinal_regions() {
@@ -103,12 +158,14 @@ public class ModifiedSKATERCON {
         int index;
         int p;
         Region[][] all_regions_arr;
+        SplittableRandom thread_random;
 
-        public Parallel_SKATERCON(int index , ArrayList<Area> all_areas , int sc , int p , Region[][] all_regions_arr) throws CloneNotSupportedException {
+        public Parallel_SKATERCON(int index , ArrayList<Area> all_areas , int sc , int p , Region[][] all_regions_arr , SplittableRandom thread_random) throws CloneNotSupportedException {
+            this.thread_random = thread_random;
             this.index = index;
             this.sc = sc;
             this.p = p;
-            this.all_areas_local = Area.area_list_copy(all_areas);
+            this.all_areas_local = all_areas; //the threads only read the areas, each one builds its own spanning tree
             this.all_regions_arr = all_regions_arr;
         }
 
@@ -116,9 +173,9 @@ public class ModifiedSKATERCON {
         {
 
             Region[] result_regions;
-            ArrayList<Area> rst = new RandomSpanningTree(all_areas_local).run_RST();
+            SpanningTree rst = new RandomSpanningTree(all_areas_local , thread_random).run_RST();
 
-            result_regions = new ModifiedSKATER(rst,  sc , p ,  threshold, true).get_regions();
+            result_regions = new ModifiedSKATER(all_areas_local , rst ,  sc , p ,  threshold).get_regions();
             all_regions_arr[index] = result_regions;
 
         }
@@ -1,9 +1,10 @@
 package baseline.skatercon;
+import baseline.skater.SpanningTree;
 import util.Area;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * This class constructs a random spanning tree, which is the prerequisite of skatercon
@@ -12,18 +13,32 @@ import java.util.Random;
 public class RandomSpanningTree {
 
     private ArrayList<Area> all_areas;
+    private SplittableRandom random;
 
     public RandomSpanningTree(ArrayList<Area> all_areas)
     {
-        this.all_areas = (ArrayList<Area>) all_areas.clone();
+        this(all_areas , new SplittableRandom());
     }
 
-    public ArrayList<Area> run_RST()
+    /**
+     *
+     * @param all_areas the input areas
+     * @param random the random number generator of the walks, it must not be shared with another thread
+     */
+    public RandomSpanningTree(ArrayList<Area> all_areas , SplittableRandom random)
+    {
+        this.all_areas = all_areas;
+        this.random = random;
+    }
+
+    /**
+     * @return the edges of a random spanning tree of the areas, the neighbors of the areas are not modified
+     */
+    public SpanningTree run_RST()
     {
         boolean[] in_tree = new boolean[all_areas.size()];
         int[] next = new int[all_areas.size()];
-        Area root = all_areas.get(new Random().nextInt(all_areas.size()));
-        int root_index = all_areas.indexOf(root);
+        int root_index = random.nextInt(all_areas.size());
         in_tree[root_index] = true;
         Arrays.fill(next , -1);
 
@@ -43,11 +58,7 @@ public class RandomSpanningTree {
             }
         }
 
-        for(Area g : all_areas)
-        {
-            g.initialize_neighbor();
-        }
-
+        SpanningTree tree = new SpanningTree(all_areas.size());
         for(int i = 0 ; i < all_areas.size() ; i++)
         {
             int j = next[i];
@@ -55,18 +66,11 @@ public class RandomSpanningTree {
             {
                 continue;
             }
-            all_areas.get(i).add_neighbor(j);
-            all_areas.get(j).add_neighbor(i);
-
-        }
+            tree.add_edge(i , j);
 
-        int total_neigh = 0;
-        for(Area area : all_areas)
-        {
-            total_neigh +=  area.get_neigh_area_index().size();
         }
 
-        return all_areas;
+        return tree;
 
 
     }
@@ -76,9 +80,9 @@ public class RandomSpanningTree {
 
     private int random_successor(int u)
     {
-        ArrayList<Integer> neigh_index =  all_areas.get(u).get_neigh_area_index();
-        int rand_num = new Random(System.nanoTime()).nextInt(neigh_index.size());
-        return neigh_index.get(rand_num);
+        int[] neigh_index =  all_areas.get(u).get_neigh_area_index();
+        int rand_num = random.nextInt(neigh_index.length);
+        return neigh_index[rand_num];
 
         /*
         GeoArea g = all_areas.get(u);
@@ -23,14 +23,8 @@ public class ClassicSolution {
         String[] datasets = {"2k"};
 
         ArrayList<Area> areas = Preprocess.GeoSetBuilder("2k");
-        long heterogeneity = 0;
-
 // 计算异质性（所有区域对之间internal_attr的绝对差值之和）
-        for (int i = 0; i < areas.size(); i++) {
-            for (int j = i + 1; j < areas.size(); j++) {
-                heterogeneity += Math.abs(areas.get(i).get_internal_attr() - areas.get(j).get_internal_attr());
-            }
-        }
+        long heterogeneity = Region.compute_hetero(areas);
 
         System.out.println("Heterogeneity of 50 areas: " + heterogeneity);
 
@@ -78,7 +72,7 @@ public class ClassicSolution {
                 System.out.print("Iteration " + (i+1) + "... ");
 
                 long startTime = System.currentTimeMillis();
-                GlobalSearch gs = new GlobalSearch(Area.area_list_copy(allAreas), p, allAreas.size(), threshold, false);
+                GlobalSearch gs = new GlobalSearch(allAreas, p, allAreas.size(), threshold, false);
 
                 if (gs.solved()) {
                     System.out.println("SUCCESS");
@@ -0,0 +1,107 @@
+package test;
+
+import org.locationtech.jts.geom.Geometry;
+import util.Area;
+import util.Contiguity;
+import util.Preprocess;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class compares the runtime of the pairwise neighbor construction with the STR-tree based construction, sequential and parallel,
+ * and checks that they produce the same neighboring relations. It also times the other contiguity criteria and reports how many areas get different neighbors than under the original criterion
+ */
+public class ContiguityBenchmark {
+
+    public static void main(String[] args) throws IOException, CloneNotSupportedException, InterruptedException {
+        String[] datasets = args.length > 0 ? args : new String[]{"5k" , "10k" , "30k"};
+        int thread_num = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("----------          contiguity benchmark starts          ----------");
+        for(String dataset : datasets)
+        {
+            System.out.println("the current dataset is the " + dataset);
+            ArrayList<Area> pairwise_areas = new ArrayList<>();
+            ArrayList<Geometry> polygons = Preprocess.load_polygons(dataset , pairwise_areas);
+            ArrayList<Area> indexed_areas = copy_without_neighbors(pairwise_areas);
+            ArrayList<Area> parallel_areas = copy_without_neighbors(pairwise_areas);
+            System.out.println("the number of areas is " + polygons.size());
+
+            long pairwise_start = System.currentTimeMillis();
+            Preprocess.setNeighbors_pairwise(polygons , pairwise_areas);
+            long pairwise_time = System.currentTimeMillis() - pairwise_start;
+
+            long indexed_start = System.currentTimeMillis();
+            Preprocess.setNeighbors(polygons , indexed_areas);
+            long indexed_time = System.currentTimeMillis() - indexed_start;
+
+            long parallel_start = System.currentTimeMillis();
+            Preprocess.setNeighbors_parallel(polygons , parallel_areas , thread_num);
+            long parallel_time = System.currentTimeMillis() - parallel_start;
+
+            System.out.println("pairwise runtime " + pairwise_time + " ms");
+            System.out.println("STR-tree runtime " + indexed_time + " ms");
+            System.out.println("parallel STR-tree runtime (" + thread_num + " threads) " + parallel_time + " ms");
+            System.out.println("same neighboring relations " + (same_neighbors(pairwise_areas , indexed_areas) && same_neighbors(pairwise_areas , parallel_areas)));
+
+            for(Contiguity mode : Contiguity.values())
+            {
+                if(mode == Contiguity.INTERSECTION)
+                {
+                    continue;
+                }
+                ArrayList<Area> mode_areas = copy_without_neighbors(pairwise_areas);
+                long mode_start = System.currentTimeMillis();
+                Preprocess.setNeighbors_parallel(polygons , mode_areas , thread_num , mode);
+                long mode_time = System.currentTimeMillis() - mode_start;
+                System.out.println(mode + " runtime " + mode_time + " ms, areas with different neighbors " + count_different(pairwise_areas , mode_areas));
+            }
+            System.out.println();
+        }
+        System.out.println("----------          contiguity benchmark ends          ----------");
+    }
+
+    static ArrayList<Area> copy_without_neighbors(ArrayList<Area> areas) {
+        ArrayList<Area> copy = new ArrayList<>(areas.size());
+        for(Area area : areas)
+        {
+            Area g = new Area(area.get_geo_index() , area.get_internal_attr() , area.get_extensive_attr() , area.get_coordinates());
+            g.set_centroid(area.get_centroid());
+            g.set_component(area.get_component());
+            copy.add(g);
+        }
+        return copy;
+    }
+
+    static int count_different(ArrayList<Area> expected , ArrayList<Area> actual)
+    {
+        int count = 0;
+        for(int i = 0 ; i < expected.size() ; i++)
+        {
+            if(!Arrays.equals(expected.get(i).get_neigh_area_index() , actual.get(i).get_neigh_area_index()))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static boolean same_neighbors(ArrayList<Area> expected , ArrayList<Area> actual)
+    {
+        if(expected.size() != actual.size())
+        {
+            return false;
+        }
+        for(int i = 0 ; i < expected.size() ; i++)
+        {
+            if(!Arrays.equals(expected.get(i).get_neigh_area_index() , actual.get(i).get_neigh_area_index()))
+            {
+                System.out.println("the neighbors of area " + i + " do not match");
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package test;
+
+import util.Area;
+import util.Preprocess;
+import util.WeightsFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * This class exports the neighboring relations of a dataset to a GeoDa .gal file,
+ * usage: ExportWeights dataset [output.gal], the output defaults to the name of the dataset
+ */
+public class ExportWeights {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length == 0)
+        {
+            System.out.println("usage: ExportWeights dataset [output.gal]");
+            return;
+        }
+        String dataset = args[0];
+        File output = new File(args.length > 1 ? args[1] : dataset + ".gal");
+        ArrayList<Area> areas = Preprocess.GeoSetBuilder(dataset);
+        WeightsFile.write_gal(areas , output);
+        System.out.println("the neighboring relations of " + areas.size() + " areas are written to " + output);
+    }
+}
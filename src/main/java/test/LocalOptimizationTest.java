@@ -6,6 +6,8 @@ import com.github.cliftonlabs.json_simple.JsonObject;
 import com.github.cliftonlabs.json_simple.JsonArray;
 import com.github.cliftonlabs.json_simple.Jsoner;
 import util.Area;
+import util.AreaGraph;
+import util.Partition;
 import util.Region;
 import util.Preprocess;
 
@@ -66,10 +68,10 @@ public class LocalOptimizationTest {
             allAreas = Preprocess.GeoSetBuilder(dataset);
         } catch (Exception e) {
             System.err.println("Error loading dataset '" + dataset + "'.");
-            System.err.println("You may need to add this case to Preprocess.java:");
-            System.err.println("case \"2k\":");
-            System.err.println("    file = new File(\"DataFile/2056dataset/merge.shp\");");
-            System.err.println("    break;");
+            System.err.println("You may need to register it in DataFile/datasets.properties:");
+            System.err.println("2k.path=DataFile/2056dataset/merged.shp");
+            System.err.println("2k.sim=aland");
+            System.err.println("2k.ext=aland");
             throw e;
         }
 
@@ -81,10 +83,8 @@ public class LocalOptimizationTest {
         // Phase 3: Reset all area assignments and create regions
         phaseStart = System.currentTimeMillis();
 
-        // Reset all area assignments
-        for (Area area : allAreas) {
-            area.set_region(-1);
-        }
+        // All the areas start unassigned
+        Partition partition = new Partition(new AreaGraph(allAreas), p);
 
         // Create regions from JSON assignments
         Region[] regions = new Region[p];
@@ -104,7 +104,7 @@ public class LocalOptimizationTest {
                     throw new RuntimeException("Area index " + areaIndex + " is out of bounds for dataset with " + allAreas.size() + " areas");
                 }
                 Area area = allAreas.get(areaIndex);
-                area.set_region(regionId); // Set the region assignment
+                partition.assign(area, regionId); // Set the region assignment
             }
         }
 
@@ -123,7 +123,7 @@ public class LocalOptimizationTest {
             if (!areasInRegion.isEmpty()) {
                 // 使用第一个区域作为种子创建区域，然后添加其余区域
                 Area firstArea = areasInRegion.get(0);
-                regions[regionId] = new Region(regionId, firstArea, threshold, allAreas);
+                regions[regionId] = new Region(regionId, firstArea, threshold, partition);
 
                 // 添加其余区域到该区域（跳过第一个，因为已经在构造函数中添加了）
                 for (int i = 1; i < areasInRegion.size(); i++) {
@@ -319,12 +319,12 @@ public class LocalOptimizationTest {
         System.out.println("Created " + seedAreas.size() + " seed areas for mock GlobalSearch");
 
         // 临时清理种子区域的邻居关系，避免索引越界
-        ArrayList<ArrayList<Integer>> originalNeighbors = new ArrayList<>();
+        ArrayList<int[]> originalNeighbors = new ArrayList<>();
         for (Area seed : seedAreas) {
             // 保存原始邻居
-            originalNeighbors.add(new ArrayList<>(seed.get_neigh_area_index()));
+            originalNeighbors.add(seed.get_neigh_area_index());
             // 清空邻居列表
-            seed.get_neigh_area_index().clear();
+            seed.set_neighbor_once(new int[0]);
         }
 
         GlobalSearch gs;
@@ -337,8 +337,7 @@ public class LocalOptimizationTest {
         } finally {
             // 恢复原始邻居关系
             for (int i = 0; i < seedAreas.size() && i < originalNeighbors.size(); i++) {
-                seedAreas.get(i).get_neigh_area_index().clear();
-                seedAreas.get(i).get_neigh_area_index().addAll(originalNeighbors.get(i));
+                seedAreas.get(i).set_neighbor_once(originalNeighbors.get(i));
             }
         }
 
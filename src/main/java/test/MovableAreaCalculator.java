@@ -2,6 +2,9 @@ package test;
 
 import GSLO.Tarjan;
 import util.Area;
+import util.AreaGraph;
+import util.AreaSet;
+import util.Partition;
 import util.Preprocess;
 import util.Region;
 
@@ -21,6 +24,7 @@ import com.github.cliftonlabs.json_simple.Jsoner;
 public class MovableAreaCalculator {
     private ArrayList<Area> allAreas;
     private Region[] regions;
+    private Partition partition;
     private long threshold;
     private String jsonAssignmentPath;
 
@@ -94,36 +98,16 @@ public class MovableAreaCalculator {
                 }
             }
 
-            // Assign each area to its region
+            // Assign each area to its region, the areas missing from the file stay unassigned (-1)
+            int[] assignment = new int[allAreas.size()];
             for (Area area : allAreas) {
                 int areaIndex = area.get_geo_index();
-                if (areaToRegionMap.containsKey(areaIndex)) {
-                    area.set_region(areaToRegionMap.get(areaIndex));
-                } else {
-                    area.set_region(-1); // Unassigned
-                }
+                assignment[areaIndex] = areaToRegionMap.getOrDefault(areaIndex, -1);
             }
 
-            // Create regions array
-            regions = new Region[pValue];
-
-            // Initialize regions and add areas to them
-            for (int i = 0; i < regions.length; i++) {
-                for (Area area : allAreas) {
-                    if (area.get_associated_region_index() == i) {
-                        regions[i] = new Region(i, area, threshold, allAreas);
-                        break;
-                    }
-                }
-
-                // Add remaining areas to their regions
-                for (Area area : allAreas) {
-                    if (area.get_associated_region_index() == i &&
-                            !regions[i].get_areas_in_region().contains(area)) {
-                        regions[i].add_area_to_region(area);
-                    }
-                }
-            }
+            // Create the regions and add the areas to them
+            partition = new Partition(new AreaGraph(allAreas), pValue);
+            regions = Region.construct_region_from_assignment(partition, assignment, threshold);
         } catch (Exception e) {
             throw new IOException("Error parsing assignment JSON file: " + e.getMessage(), e);
         }
@@ -138,10 +122,10 @@ public class MovableAreaCalculator {
             Region region = regions[i];
 
             // Get areas on the margin (potential movable candidates)
-            ArrayList<Area> areasOnMargin = region.getAreas_on_margin();
+            List<Area> areasOnMargin = region.getAreas_on_margin();
 
             // Find articulation points (areas that would disconnect the region if removed)
-            ArrayList<Area> articulationPoints = new Tarjan(region, allAreas).findAPs_Tarjan();
+            List<Area> articulationPoints = new AreaSet(new Tarjan(region, allAreas).findAPs_Tarjan());
 
             // Use a Set to avoid duplicates
             Set<Integer> movableAreaSet = new HashSet<>();
@@ -180,12 +164,12 @@ public class MovableAreaCalculator {
                 continue;
             }
 
-            int currentRegion = area.get_associated_region_index();
+            int currentRegion = partition.get_region(area);
             List<Integer> destinations = new ArrayList<>();
 
             // Check neighbors to find potential destination regions
             for (Area neighbor : area.get_neigh_area(allAreas)) {
-                int neighborRegion = neighbor.get_associated_region_index();
+                int neighborRegion = partition.get_region(neighbor);
                 if (neighborRegion != currentRegion && !destinations.contains(neighborRegion)) {
                     destinations.add(neighborRegion);
                 }
@@ -205,7 +189,7 @@ public class MovableAreaCalculator {
 
         for (int i = 0; i < regions.length; i++) {
             Region region = regions[i];
-            ArrayList<Area> areas = region.get_areas_in_region();
+            List<Area> areas = region.get_areas_in_region();
 
             if (areas.isEmpty()) {
                 means.put(i, 0.0);
@@ -231,7 +215,7 @@ public class MovableAreaCalculator {
 
         for (int i = 0; i < regions.length; i++) {
             Region region = regions[i];
-            ArrayList<Area> areas = region.get_areas_in_region();
+            List<Area> areas = region.get_areas_in_region();
 
             if (areas.isEmpty() || areas.size() == 1) {
                 variances.put(i, 0.0);
@@ -0,0 +1,74 @@
+package test;
+
+import GSLO.GlobalSearch;
+import GSLO.LocalOptimization;
+import baseline.skater.ModifiedSKATER;
+import baseline.skatercon.ModifiedSKATERCON;
+import util.Area;
+import util.Preprocess;
+import util.Region;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * This class tests the scalability of GSLO, SKATER* and SKATERCON* on synthetic datasets that are generated in memory,
+ * usage: SyntheticScaling [spec ...], see util.SyntheticGenerator for the spec of a synthetic dataset
+ */
+public class SyntheticScaling {
+
+    public static void main(String[] args) throws IOException, CloneNotSupportedException, InterruptedException {
+        String[] datasets = args.length > 0 ? args : new String[]{"synthetic:grid:250000" , "synthetic:hex:500000:sim=clustered" , "synthetic:voronoi:1000000:islands=4"};
+        int p = 10;
+        double scale = 0.02;
+
+        System.out.println("----------          synthetic scaling test starts          ----------");
+        for(String dataset : datasets)
+        {
+            System.out.println("the current dataset is the " + dataset);
+            long generate_start = System.currentTimeMillis();
+            ArrayList<Area> all_areas = Preprocess.GeoSetBuilder(dataset);
+            System.out.println("the number of areas is " + all_areas.size() + " generated in " + (System.currentTimeMillis() - generate_start) + " ms");
+            long total_ext = 0;
+            for(Area area : all_areas)
+            {
+                total_ext += area.get_extensive_attr();
+            }
+            long threshold = (long)(scale * total_ext);
+            System.out.println("the total extensive attribtue is " + total_ext + " the scaled threshold is " + threshold);
+
+            GlobalSearch sol = new GlobalSearch(all_areas , p , 1 , threshold , true);
+            if(sol.solved())
+            {
+                LocalOptimization lo = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
+                System.out.println("GSLO hetero " + lo.getBest_hetero() + " runtime " + (sol.getTotal_running_time() + lo.getTotal_time()));
+            }
+            else
+            {
+                System.out.println("GSLO found no solution, runtime " + sol.getTotal_running_time());
+            }
+
+            ModifiedSKATER m_skater = new ModifiedSKATER(all_areas , 30 , p , threshold , false);
+            if(m_skater.getTrees() != null)
+            {
+                System.out.println("skater hetero " + Region.get_all_region_hetero(m_skater.get_regions()) + " runtime " + m_skater.getRuntime());
+            }
+            else
+            {
+                System.out.println("skater found no solution, runtime " + m_skater.getRuntime());
+            }
+
+            ModifiedSKATERCON mskc = new ModifiedSKATERCON(all_areas , 30 , p , threshold);
+            if(mskc.getFinal_regions() != null)
+            {
+                System.out.println("skatercon hetero " + Region.get_all_region_hetero(mskc.getFinal_regions()) + " runtime " + mskc.getRuntime());
+            }
+            else
+            {
+                System.out.println("skatercon found no solution, runtime " + mskc.getRuntime());
+            }
+            System.out.println();
+        }
+        System.out.println("----------          synthetic scaling test ends          ----------");
+    }
+}
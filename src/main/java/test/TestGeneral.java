@@ -111,7 +111,7 @@ public class TestGeneral {
             for(int i = 0 ; i < GSLO_iter ; i++)
             {
 
-                sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size() , threshold , false);
+                sol = new GlobalSearch(all_areas , p , all_areas.size() , threshold , false);
                 if(sol.solved())
                 {
                     LocalOptimization lo = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
@@ -131,7 +131,7 @@ public class TestGeneral {
 
             for(int i = 0 ; i < skater_iter ; i++)
             {
-                ModifiedSKATER m_skater = new ModifiedSKATER(Area.area_list_copy(all_areas) , 30 ,  p , threshold , false);
+                ModifiedSKATER m_skater = new ModifiedSKATER(all_areas , 30 ,  p , threshold , false);
                 skater_runtime.add(m_skater.getRuntime());
                 if(m_skater.getTrees() != null)
                 {
@@ -145,7 +145,7 @@ public class TestGeneral {
 
             for(int i = 0; i < iter_skatercon; i++)
             {
-                ModifiedSKATERCON mskc = new ModifiedSKATERCON(Area.area_list_copy(all_areas) , 30 , p , threshold);
+                ModifiedSKATERCON mskc = new ModifiedSKATERCON(all_areas , 30 , p , threshold);
                 SKATERCON_runtime.add(mskc.getRuntime());
                 if(mskc.getFinal_regions() != null)
                 {
@@ -199,7 +199,7 @@ public class TestGeneral {
             for(int i = 0 ; i < iter_GSLO ; i++)
             {
 
-                sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+                sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
                 if(sol.solved())
                 {
                     LocalOptimization lo = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
@@ -224,7 +224,7 @@ public class TestGeneral {
 
             for(int i = 0 ; i < skater_iter ; i++)
             {
-                ModifiedSKATER m_skater = new ModifiedSKATER(Area.area_list_copy(all_areas) , 30 ,  p , threshold , false);
+                ModifiedSKATER m_skater = new ModifiedSKATER(all_areas , 30 ,  p , threshold , false);
                 skater_runtime.add(m_skater.getRuntime());
                 if(m_skater.getTrees() != null)
                 {
@@ -240,7 +240,7 @@ public class TestGeneral {
 
             for(int i = 0; i < iter_time_skatercon; i++)
             {
-                ModifiedSKATERCON mskc = new ModifiedSKATERCON(Area.area_list_copy(all_areas) , 30 , p , threshold);
+                ModifiedSKATERCON mskc = new ModifiedSKATERCON(all_areas , 30 , p , threshold);
                 skater_con_runtime.add(mskc.getRuntime());
                 if(mskc.getFinal_regions() != null)
                 {
@@ -292,7 +292,7 @@ public class TestGeneral {
             for(int i = 0 ; i < iter_GSLO ; i++)
             {
 
-                sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+                sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
                 if(sol.solved())
                 {
                     LocalOptimization up = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
@@ -315,7 +315,7 @@ public class TestGeneral {
 
             for(int i = 0 ; i < skater_iter ; i++)
             {
-                ModifiedSKATER m_skater = new ModifiedSKATER(Area.area_list_copy(all_areas) , 30 ,  p , threshold , false);
+                ModifiedSKATER m_skater = new ModifiedSKATER(all_areas , 30 ,  p , threshold , false);
                 skater_runtime.add(m_skater.getRuntime());
                 if(m_skater.getTrees() != null)
                 {
@@ -328,7 +328,7 @@ public class TestGeneral {
 
             for(int i = 0; i < iter_time_skatercon; i++)
             {
-                ModifiedSKATERCON mskc = new ModifiedSKATERCON(Area.area_list_copy(all_areas) , 30 , p , threshold);
+                ModifiedSKATERCON mskc = new ModifiedSKATERCON(all_areas , 30 , p , threshold);
                 //skatercon_runtime.add(mskc.getRuntime());
                 if(mskc.getFinal_regions() != null)
                 {
@@ -371,13 +371,13 @@ public class TestGeneral {
             for(int i = 0 ; i < iter_num ; i++)
             {
 
-                sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+                sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
                 if(!sol.solved()) {
                     GSLO_fail += 1;
                 }
 
 
-                ModifiedSKATERCON mskc = new ModifiedSKATERCON(Area.area_list_copy(all_areas) , 30 , p , threshold);
+                ModifiedSKATERCON mskc = new ModifiedSKATERCON(all_areas , 30 , p , threshold);
 
                 if(mskc.getFinal_regions() == null)
                 {
@@ -385,7 +385,7 @@ public class TestGeneral {
                 }
             }
 
-            ModifiedSKATER m_skater = new ModifiedSKATER(Area.area_list_copy(all_areas) , 30 ,  p , threshold, false);
+            ModifiedSKATER m_skater = new ModifiedSKATER(all_areas , 30 ,  p , threshold, false);
 
             System.out.println("skater failed " + (m_skater.getTrees() == null));
             System.out.println("the current p is "+ p + " the current threshold is " + threshold +  " GSLO fail " + GSLO_fail + "skatercon failure" +  skater_con_fail);
@@ -422,12 +422,12 @@ public class TestGeneral {
             for(int i = 0 ; i < iter_num ; i++)
             {
 
-                sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+                sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
                 if(!sol.solved()) {
                     pruc_rg_fail += 1;
                 }
 
-                ModifiedSKATERCON mskc = new ModifiedSKATERCON(Area.area_list_copy(all_areas) , 30 , p , threshold);
+                ModifiedSKATERCON mskc = new ModifiedSKATERCON(all_areas , 30 , p , threshold);
 
                 if(mskc.getFinal_regions() == null)
                 {
@@ -435,7 +435,7 @@ public class TestGeneral {
                 }
             }
 
-            ModifiedSKATER m_skater = new ModifiedSKATER(Area.area_list_copy(all_areas) , 30 ,  p , threshold, false);
+            ModifiedSKATER m_skater = new ModifiedSKATER(all_areas , 30 ,  p , threshold, false);
 
 
             System.out.println("skater failed?" + (m_skater.getTrees() == null));
@@ -496,7 +496,7 @@ public class TestGeneral {
 
         for(int i = 0 ; i < GSLO_iter ; i ++)
         {
-            sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+            sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
             LocalOptimization up;
             if(sol.solved())
             {
@@ -507,7 +507,7 @@ public class TestGeneral {
             }
 
 
-            sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+            sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
             if(sol.solved())
             {
                 up = new LocalOptimization(sol , case001, 0.99 , sol.get_all_areas() , sol.get_regions()  , threshold);
@@ -515,7 +515,7 @@ public class TestGeneral {
                 reduction001.add(up.getBest_hetero());
             }
 
-            sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+            sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
             if(sol.solved())
             {
                 up = new LocalOptimization(sol , case01, 0.99 ,sol.get_all_areas() , sol.get_regions() , threshold);
@@ -523,7 +523,7 @@ public class TestGeneral {
                 reduction01.add(up.getBest_hetero());
             }
 
-            sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+            sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
             if(sol.solved())
             {
                 up = new LocalOptimization(sol , case1, 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
@@ -531,7 +531,7 @@ public class TestGeneral {
                 reduction1.add(up.getBest_hetero());
             }
 
-            sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold, false);
+            sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold, false);
             if(sol.solved())
             {
                 up = new LocalOptimization(sol , case10, 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
@@ -539,7 +539,7 @@ public class TestGeneral {
                 reduction10.add(up.getBest_hetero());
             }
 
-            sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+            sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
             if(sol.solved())
             {
                 up = new LocalOptimization(sol , case100, 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
@@ -593,7 +593,7 @@ public class TestGeneral {
             ArrayList<Double> seed_quality = new ArrayList<>();
             for(int i = 0 ; i < GSLO_iter ; i++)
             {
-                sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , parameter, threshold , false);
+                sol = new GlobalSearch(all_areas , p , parameter, threshold , false);
                 LocalOptimization uh = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
                 if(sol.solved())
                 {
@@ -622,7 +622,7 @@ public class TestGeneral {
         ArrayList<Long> time = new ArrayList<>();
         for(int i = 0 ; i < GSLO_iter ; i++)
         {
-            sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , -1, threshold , false);
+            sol = new GlobalSearch(all_areas , p , -1, threshold , false);
             LocalOptimization uh = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
             if(sol.solved())
             {
@@ -634,6 +634,41 @@ public class TestGeneral {
         System.out.println(" k-means++ seeding "  + " avg hetero " + compute_long_ave(hetero)  + " avg runtime " + compute_long_ave(time));
 
 
+        hetero = new ArrayList<>();
+        time = new ArrayList<>();
+        for(int i = 0 ; i < GSLO_iter ; i++)
+        {
+            sol = new GlobalSearch(all_areas , p , 0, threshold , false , true);
+            LocalOptimization uh = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
+            if(sol.solved())
+            {
+                Region.test_result_correctness(sol.get_regions() , all_areas , threshold , true);
+                hetero.add(uh.getBest_hetero());
+                time.add(sol.getTotal_running_time() + uh.getTotal_time());
+            }
+        }
+        System.out.println(" farthest-point seeding "  + " avg hetero " + compute_long_ave(hetero)  + " avg runtime " + compute_long_ave(time));
+
+
+        hetero = new ArrayList<>();
+        time = new ArrayList<>();
+        ArrayList<Double> seed_quality = new ArrayList<>();
+        int seed_starts = Runtime.getRuntime().availableProcessors();
+        for(int i = 0 ; i < GSLO_iter ; i++)
+        {
+            sol = new GlobalSearch(all_areas , p , datasetsize, threshold , false , seed_starts);
+            LocalOptimization uh = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
+            if(sol.solved())
+            {
+                Region.test_result_correctness(sol.get_regions() , all_areas , threshold , true);
+                hetero.add(uh.getBest_hetero());
+                time.add(sol.getTotal_running_time() + uh.getTotal_time());
+                seed_quality.add(sol.get_seed_quality());
+            }
+        }
+        System.out.println(" multi-start seeding with " + seed_starts + " starts " + " avg hetero " + compute_long_ave(hetero) + " avg seed quality " + compute_double_ave(seed_quality) + " avg runtime " + compute_long_ave(time));
+
+
 
 
 
@@ -677,7 +712,7 @@ public class TestGeneral {
             for(int i = 0 ; i < iternum ; i++)
             {
 
-                GlobalSearch sol = new GlobalSearch(Area.area_list_copy(all_areas) , p, all_areas.size(), threshold , island);
+                GlobalSearch sol = new GlobalSearch(all_areas , p, all_areas.size(), threshold , island);
                 if(sol.solved())
                 {
                     LocalOptimization up = new LocalOptimization(sol , all_areas.size() , 0.99 , sol.get_all_areas() , sol.get_regions() , threshold);
@@ -693,7 +728,7 @@ public class TestGeneral {
 
 
 
-                SimpleGreedy sg = new SimpleGreedy(Area.area_list_copy(all_areas) , p , threshold , island);
+                SimpleGreedy sg = new SimpleGreedy(all_areas , p , threshold , island);
                 sg_runtime.add(sg.getTotal_running_time());
                 if(sg.get_solved())
                 {
@@ -745,7 +780,7 @@ public class TestGeneral {
 
             for(int i = 0 ; i < GSLO_iter ; i++)
             {
-                GlobalSearch sol = new GlobalSearch(Area.area_list_copy(all_areas) ,p , all_areas.size(), threshold , false);
+                GlobalSearch sol = new GlobalSearch(all_areas ,p , all_areas.size(), threshold , false);
                 if(sol.solved())
                 {
                     solved = true;
@@ -802,7 +837,7 @@ public class TestGeneral {
             for(int i = 0 ; i < iter_GS ; i++)
             {
 
-                sol = new GlobalSearch(Area.area_list_copy(all_areas) , p , all_areas.size(), threshold , false);
+                sol = new GlobalSearch(all_areas , p , all_areas.size(), threshold , false);
                 GS_runtime.add(sol.getTotal_running_time());
                 if(sol.solved())
                 {
@@ -6,7 +6,9 @@ import java.io.Serializable;
 import java.util.ArrayList;
 
 /**
- * This class describes the Area class which is a spatial area that has numerical attribute and represented by a set of marginal coordinates
+ * This class describes the Area class which is a spatial area that has numerical attribute and represented by a set of marginal coordinates.
+ * The geo indices of the neighbors are kept in an int array that is only built while the areas are loaded, the algorithms that rewrite
+ * the graph (e.g. into a spanning tree) keep their own edges, so the areas can be shared by several runs without being copied
  */
 public class Area implements Cloneable , Serializable {
 
@@ -15,15 +17,15 @@ public class Area implements Cloneable , Serializable {
     private long extensive_attr;
     private Coordinate[] coor_array;
     private Coordinate centroid;
-    private ArrayList<Integer> neigh_area_index;
-    private int associate_region_index;
+    private int[] neigh_area_index;
+    private int component;
 
     /**
      *
      * @param index the unique identifier of an area
      * @param sim_attr the similarity attribute
      * @param extensive_attr the extensive attribute
-     * @param coor_array the set of coordinates that marks the margin of this area
+     * @param coor_array the set of coordinates that marks the margin of this area, null if the area is loaded without geometry and its centroid is set directly
      */
     public Area(int index , long sim_attr, long extensive_attr , Coordinate[] coor_array)
     {
@@ -31,13 +33,31 @@ public class Area implements Cloneable , Serializable {
         this.sim_attr = sim_attr;
         this.extensive_attr = extensive_attr;
         this.coor_array = coor_array;
-        neigh_area_index = new ArrayList<>();
-        associate_region_index = -1;
+        neigh_area_index = new int[0];
+        component = -1;
     }
 
 
 
+    /**
+     * This method computes the centroid as the average of the coordinates.
+     * Areas loaded without coordinates keep the centroid that was computed when the dataset was built
+     */
     public void set_centroid()
+    {
+        if(coor_array == null)
+        {
+            return;
+        }
+        centroid = compute_centroid(coor_array);
+    }
+
+    /**
+     *
+     * @param coor_array the coordinates that mark the margin of an area
+     * @return the average of the coordinates
+     */
+    public static Coordinate compute_centroid(Coordinate[] coor_array)
     {
         double total_x = 0.0;
         double total_y = 0.0;
@@ -47,7 +67,7 @@ public class Area implements Cloneable , Serializable {
         }
         double ave_x = total_x / coor_array.length;
         double ave_y = total_y / coor_array.length;
-        centroid = new Coordinate(ave_x , ave_y);
+        return new Coordinate(ave_x , ave_y);
     }
 
     /**
@@ -67,17 +87,10 @@ public class Area implements Cloneable , Serializable {
         this.centroid = centroid;
     }
 
-    public void set_region(int region_index)
-    {
-        this.associate_region_index = region_index;
-    }
-
-    public void add_neighbor(int add_index)
-    {
-        neigh_area_index.add(add_index);
-    }
-
-    public void set_neighbor_once(ArrayList<Integer> neighbor_to_set)
+    /**
+     * @param neighbor_to_set the geo indices of all the neighbors, the array is kept by the area
+     */
+    public void set_neighbor_once(int[] neighbor_to_set)
     {
         this.neigh_area_index = neighbor_to_set;
     }
@@ -104,13 +117,40 @@ public class Area implements Cloneable , Serializable {
         return neigh_areas;
     }
 
-    public ArrayList<Integer> get_neigh_area_index()
+    /**
+     * @return the geo indices of the neighbors, the array is shared and must not be modified
+     */
+    public int[] get_neigh_area_index()
     {
         return neigh_area_index;
     }
 
-    public int get_associated_region_index() { return associate_region_index; }
+    /**
+     * @param geo_index the geo index of another area
+     * @return whether the area is a neighbor of this area
+     */
+    public boolean is_neighbor(int geo_index)
+    {
+        for(int neigh_index : neigh_area_index)
+        {
+            if(neigh_index == geo_index)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the connected component of the area, -1 if the components have not been computed, see ConnectedComponents
+     */
+    public int get_component() { return component; }
 
+    public void set_component(int component) { this.component = component; }
+
+    /**
+     * @return the coordinates of the area, or null if the dataset was loaded without geometry (see Preprocess.load_geometries)
+     */
     public Coordinate[] get_coordinates() { return coor_array; }
 
     public Coordinate get_centroid() { return centroid; }
@@ -120,32 +160,16 @@ public class Area implements Cloneable , Serializable {
         return Math.abs(sim_attr - neigh_area.get_internal_attr());
     }
 
-    public void initialize_neighbor() {
-        neigh_area_index = new ArrayList<>();
-    }
-
-
-
     @Override
     protected Object clone() {
         Area g = new Area(this.get_geo_index() , this.get_internal_attr() , this.get_extensive_attr() , this.get_coordinates());
-        g.set_region(this.get_associated_region_index());
-        g.set_neighbor_once((ArrayList<Integer>)neigh_area_index.clone());
+        g.set_neighbor_once(neigh_area_index);
         g.set_centroid(this.get_centroid());
+        g.set_component(this.get_component());
         return g;
     }
 
 
-    public static ArrayList<Area> area_list_copy(ArrayList<Area> all_areas) throws CloneNotSupportedException {
-        ArrayList<Area> returned_areas = new ArrayList<>();
-        for(Area g : all_areas)
-        {
-            returned_areas.add((Area)g.clone());
-        }
-        return returned_areas;
-    }
-
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
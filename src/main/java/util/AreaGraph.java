@@ -0,0 +1,118 @@
+package util;
+
+import java.util.ArrayList;
+
+/**
+ * This class is an immutable snapshot of the areas in structure-of-arrays form: the neighbor lists in CSR form (offsets + neighbor indices),
+ * the similarity and extensive attributes and the centroids, all indexed by the geo index.
+ * The neighbors of an area are visited without allocating, e.g.
+ * <pre>
+ *   for(int k = graph.begin(i) ; k &lt; graph.end(i) ; k++)
+ *   {
+ *       int j = graph.neighbor(k);
+ *   }
+ * </pre>
+ * The snapshot is taken when the graph is built, so an algorithm that changes the neighbor lists of the areas must build a new graph afterwards
+ */
+public class AreaGraph {
+
+    private final ArrayList<Area> all_areas;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final long[] sim;
+    private final long[] ext;
+    private final double[] cx;
+    private final double[] cy;
+
+    /**
+     *
+     * @param all_areas all the areas, the i-th area has geo index i
+     */
+    public AreaGraph(ArrayList<Area> all_areas)
+    {
+        this.all_areas = all_areas;
+        int n = all_areas.size();
+        offsets = new int[n + 1];
+        sim = new long[n];
+        ext = new long[n];
+        cx = new double[n];
+        cy = new double[n];
+        for(int i = 0 ; i < n ; i++)
+        {
+            Area area = all_areas.get(i);
+            offsets[i + 1] = offsets[i] + area.get_neigh_area_index().length;
+            sim[i] = area.get_internal_attr();
+            ext[i] = area.get_extensive_attr();
+            if(area.get_centroid() != null)
+            {
+                cx[i] = area.get_centroid().getX();
+                cy[i] = area.get_centroid().getY();
+            }
+        }
+        neighbors = new int[offsets[n]];
+        for(int i = 0 ; i < n ; i++)
+        {
+            int k = offsets[i];
+            for(int neigh : all_areas.get(i).get_neigh_area_index())
+            {
+                neighbors[k++] = neigh;
+            }
+        }
+    }
+
+    /**
+     * This method returns the graph shared by the regions if it was built on the given areas, so the phases working on the same regions
+     * do not rebuild it, and builds a new graph otherwise
+     * @param regions the regions
+     * @param all_areas all the areas
+     * @return the graph of the areas
+     */
+    public static AreaGraph of(Region[] regions , ArrayList<Area> all_areas)
+    {
+        if(regions != null)
+        {
+            for(Region r : regions)
+            {
+                if(r != null && r.get_graph() != null && r.get_graph().get_areas() == all_areas)
+                {
+                    return r.get_graph();
+                }
+            }
+        }
+        return new AreaGraph(all_areas);
+    }
+
+    public int size() { return sim.length; }
+
+    /**
+     * @return the position of the first neighbor of the i-th area
+     */
+    public int begin(int i) { return offsets[i]; }
+
+    /**
+     * @return the position after the last neighbor of the i-th area
+     */
+    public int end(int i) { return offsets[i + 1]; }
+
+    /**
+     * @return the geo index of the neighbor at position k, see begin and end
+     */
+    public int neighbor(int k) { return neighbors[k]; }
+
+    public int degree(int i) { return offsets[i + 1] - offsets[i]; }
+
+    public long get_sim(int i) { return sim[i]; }
+
+    public long get_ext(int i) { return ext[i]; }
+
+    public double get_x(int i) { return cx[i]; }
+
+    public double get_y(int i) { return cy[i]; }
+
+    public Area get_area(int i) { return all_areas.get(i); }
+
+    /**
+     * @return the areas the graph was built on
+     */
+    public ArrayList<Area> get_areas() { return all_areas; }
+}
@@ -0,0 +1,135 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * This class is a set of areas that can also be read as a list. The position of every area is kept in a hash map keyed by the geo index,
+ * so contains, indexOf, add and remove take O(1). An area is removed by moving the last area of the list into its position,
+ * so the order of the areas is the order of insertion only until the first removal
+ */
+public class AreaSet extends AbstractList<Area> implements RandomAccess {
+
+    private Area[] items;
+    private int size;
+    private IntIntMap position;
+
+    public AreaSet()
+    {
+        this(8);
+    }
+
+    /**
+     * @param capacity the expected number of areas
+     */
+    public AreaSet(int capacity)
+    {
+        items = new Area[Math.max(capacity , 1)];
+        position = new IntIntMap(capacity);
+    }
+
+    /**
+     * @param areas the areas to add, the repeated areas are added once
+     */
+    public AreaSet(Collection<Area> areas)
+    {
+        this(areas.size());
+        for(Area area : areas)
+        {
+            add(area);
+        }
+    }
+
+    @Override
+    public Area get(int index)
+    {
+        if(index >= size)
+        {
+            throw new IndexOutOfBoundsException("index " + index + " size " + size);
+        }
+        return items[index];
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public boolean contains(Object o)
+    {
+        return o instanceof Area && position.contains_key(((Area) o).get_geo_index());
+    }
+
+    @Override
+    public int indexOf(Object o)
+    {
+        return o instanceof Area ? position.get(((Area) o).get_geo_index() , -1) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o)
+    {
+        return indexOf(o);
+    }
+
+    /**
+     * @param area the area to add at the end of the list
+     * @return false if the area is already in the set
+     */
+    @Override
+    public boolean add(Area area)
+    {
+        if(position.contains_key(area.get_geo_index()))
+        {
+            return false;
+        }
+        if(size == items.length)
+        {
+            items = Arrays.copyOf(items , size * 2);
+        }
+        position.put(area.get_geo_index() , size);
+        items[size++] = area;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * @param o the area to remove, the last area of the list takes its position
+     * @return false if the area is not in the set
+     */
+    @Override
+    public boolean remove(Object o)
+    {
+        if(!(o instanceof Area))
+        {
+            return false;
+        }
+        int index = position.remove(((Area) o).get_geo_index() , -1);
+        if(index == -1)
+        {
+            return false;
+        }
+        size--;
+        if(index != size)
+        {
+            items[index] = items[size];
+            position.put(items[index].get_geo_index() , index);
+        }
+        items[size] = null;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear()
+    {
+        for(int i = 0 ; i < size ; i++)
+        {
+            items[i] = null;
+        }
+        size = 0;
+        position.clear();
+        modCount++;
+    }
+}
@@ -0,0 +1,255 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * This class is an order-statistic tree (a treap) over the similarity attributes of the areas in a region.
+ * Every node holds a distinct attribute with its multiplicity, and the number and the sum of the attributes in its subtree,
+ * so the sum of the absolute differences between a value and all the attributes in the tree is computed in O(log n)
+ * and an attribute is inserted or removed in O(log n). The nodes are stored in arrays and reused after removal
+ */
+public class AttributeTree {
+
+    //node 0 is the empty subtree, its count and sum stay 0
+    private long[] key = new long[16];
+    private int[] mult = new int[16];
+    private int[] count = new int[16];
+    private long[] sum = new long[16];
+    private int[] priority = new int[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private int root = 0;
+    private int node_num = 1;
+    private int free = 0;
+    private int random = 0x2545F491;
+
+    public AttributeTree() {}
+
+    /**
+     * @param values the attributes to insert
+     */
+    public AttributeTree(long[] values)
+    {
+        for(long value : values)
+        {
+            insert(value);
+        }
+    }
+
+    public void insert(long value)
+    {
+        root = insert(root , value);
+    }
+
+    /**
+     * This method removes one occurrence of the attribute
+     * @param value the attribute to remove, it must be in the tree
+     */
+    public void remove(long value)
+    {
+        root = remove(root , value);
+    }
+
+    /**
+     * @param value the value to compare with
+     * @return the sum of |value - x| over all the attributes x in the tree
+     */
+    public long sum_abs_diff(long value)
+    {
+        long below_count = 0;
+        long below_sum = 0;
+        int node = root;
+        while(node != 0)
+        {
+            if(key[node] <= value)
+            {
+                below_count += count[left[node]] + mult[node];
+                below_sum += sum[left[node]] + key[node] * mult[node];
+                node = right[node];
+            }
+            else
+            {
+                node = left[node];
+            }
+        }
+        long above_count = count[root] - below_count;
+        long above_sum = sum[root] - below_sum;
+        return value * below_count - below_sum + above_sum - value * above_count;
+    }
+
+    /**
+     * This method computes the sum of the absolute differences over all the pairs of values in O(n log n), by sorting the values
+     * and adding v[k] * k minus the sum of the k smaller values for every position k
+     * @param values the values, they are sorted in place
+     * @return the sum of |v[i] - v[j]| over all i &lt; j
+     */
+    public static long sum_pairwise_abs_diff(long[] values)
+    {
+        Arrays.sort(values);
+        long total = 0;
+        long prefix = 0;
+        for(int k = 0 ; k < values.length ; k++)
+        {
+            total += values[k] * k - prefix;
+            prefix += values[k];
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of attributes in the tree, counting the repeated ones
+     */
+    public int size() { return count[root]; }
+
+    /**
+     * @return the sum of the attributes in the tree
+     */
+    public long get_sum() { return sum[root]; }
+
+    private int insert(int node , long value)
+    {
+        if(node == 0)
+        {
+            return new_node(value);
+        }
+        if(value == key[node])
+        {
+            mult[node]++;
+        }
+        else if(value < key[node])
+        {
+            //the arrays may grow in the recursive call, so the child is assigned after it returns
+            int child = insert(left[node] , value);
+            left[node] = child;
+            if(priority[left[node]] > priority[node])
+            {
+                node = rotate_right(node);
+            }
+        }
+        else
+        {
+            int child = insert(right[node] , value);
+            right[node] = child;
+            if(priority[right[node]] > priority[node])
+            {
+                node = rotate_left(node);
+            }
+        }
+        pull(node);
+        return node;
+    }
+
+    private int remove(int node , long value)
+    {
+        if(node == 0)
+        {
+            throw new IllegalArgumentException("the attribute " + value + " is not in the tree");
+        }
+        if(value < key[node])
+        {
+            left[node] = remove(left[node] , value);
+        }
+        else if(value > key[node])
+        {
+            right[node] = remove(right[node] , value);
+        }
+        else if(mult[node] > 1)
+        {
+            mult[node]--;
+        }
+        else
+        {
+            int merged = merge(left[node] , right[node]);
+            left[node] = free;
+            free = node;
+            return merged;
+        }
+        pull(node);
+        return node;
+    }
+
+    /**
+     * @return the root of the tree made of a and b, all the attributes of a are smaller than those of b
+     */
+    private int merge(int a , int b)
+    {
+        if(a == 0)
+        {
+            return b;
+        }
+        if(b == 0)
+        {
+            return a;
+        }
+        if(priority[a] > priority[b])
+        {
+            right[a] = merge(right[a] , b);
+            pull(a);
+            return a;
+        }
+        left[b] = merge(a , left[b]);
+        pull(b);
+        return b;
+    }
+
+    private int rotate_right(int node)
+    {
+        int l = left[node];
+        left[node] = right[l];
+        right[l] = node;
+        pull(node);
+        return l;
+    }
+
+    private int rotate_left(int node)
+    {
+        int r = right[node];
+        right[node] = left[r];
+        left[r] = node;
+        pull(node);
+        return r;
+    }
+
+    private void pull(int node)
+    {
+        count[node] = count[left[node]] + count[right[node]] + mult[node];
+        sum[node] = sum[left[node]] + sum[right[node]] + key[node] * mult[node];
+    }
+
+    private int new_node(long value)
+    {
+        int node;
+        if(free != 0)
+        {
+            node = free;
+            free = left[node];
+        }
+        else
+        {
+            if(node_num == key.length)
+            {
+                int length = key.length * 2;
+                key = Arrays.copyOf(key , length);
+                mult = Arrays.copyOf(mult , length);
+                count = Arrays.copyOf(count , length);
+                sum = Arrays.copyOf(sum , length);
+                priority = Arrays.copyOf(priority , length);
+                left = Arrays.copyOf(left , length);
+                right = Arrays.copyOf(right , length);
+            }
+            node = node_num++;
+        }
+        //xorshift, the shape of the tree only depends on the order of the insertions
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        key[node] = value;
+        mult[node] = 1;
+        count[node] = 1;
+        sum[node] = value;
+        priority[node] = random;
+        left[node] = 0;
+        right[node] = 0;
+        return node;
+    }
+}
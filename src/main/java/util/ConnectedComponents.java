@@ -0,0 +1,135 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class holds the connected components (islands) of the areas. The component of every area is computed once when the dataset is loaded,
+ * by an iterative breadth-first search over int arrays, and stored on the areas (see Area.get_component) and in the cached graph,
+ * so the seeding only groups the areas by their component ids and sums the extensive attributes
+ */
+public class ConnectedComponents {
+
+    private int component_num;
+    private int[] component_of;
+    private int[] offsets;
+    private int[] members;
+    private long[] total_ext;
+
+    /**
+     * The areas that were not labeled when the dataset was loaded are labeled here
+     * @param all_areas all the areas, the i-th area has geo index i
+     */
+    public ConnectedComponents(ArrayList<Area> all_areas)
+    {
+        int n = all_areas.size();
+        for(Area area : all_areas)
+        {
+            if(area.get_component() < 0)
+            {
+                label(all_areas);
+                break;
+            }
+        }
+        component_of = new int[n];
+        for(int i = 0 ; i < n ; i++)
+        {
+            component_of[i] = all_areas.get(i).get_component();
+        }
+
+        for(int c : component_of)
+        {
+            component_num = Math.max(component_num , c + 1);
+        }
+        offsets = new int[component_num + 1];
+        total_ext = new long[component_num];
+        for(int i = 0 ; i < n ; i++)
+        {
+            offsets[component_of[i] + 1]++;
+            total_ext[component_of[i]] += all_areas.get(i).get_extensive_attr();
+        }
+        for(int c = 0 ; c < component_num ; c++)
+        {
+            offsets[c + 1] += offsets[c];
+        }
+        members = new int[n];
+        int[] fill = new int[component_num];
+        for(int i = 0 ; i < n ; i++)
+        {
+            int c = component_of[i];
+            members[offsets[c] + fill[c]++] = i;
+        }
+    }
+
+    /**
+     * This method computes the connected component of every area and stores it on the area.
+     * The components are numbered in the order of their smallest geo index
+     * @param all_areas all the areas, the i-th area has geo index i
+     * @return the number of components
+     */
+    public static int label(ArrayList<Area> all_areas)
+    {
+        int n = all_areas.size();
+        int[] component_of = new int[n];
+        Arrays.fill(component_of , -1);
+        int[] queue = new int[n];
+        int component_num = 0;
+        for(int start = 0 ; start < n ; start++)
+        {
+            if(component_of[start] != -1)
+            {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            component_of[start] = component_num;
+            while(head < tail)
+            {
+                int current = queue[head++];
+                for(int neigh : all_areas.get(current).get_neigh_area_index())
+                {
+                    if(component_of[neigh] == -1)
+                    {
+                        component_of[neigh] = component_num;
+                        queue[tail++] = neigh;
+                    }
+                }
+            }
+            component_num++;
+        }
+
+        for(int i = 0 ; i < n ; i++)
+        {
+            all_areas.get(i).set_component(component_of[i]);
+        }
+        return component_num;
+    }
+
+    public int get_component_num() { return component_num; }
+
+    /**
+     * @return the component of the area whose geo index is given
+     */
+    public int get_component(int geo_index) { return component_of[geo_index]; }
+
+    public long get_total_ext(int component) { return total_ext[component]; }
+
+    public int get_size(int component) { return offsets[component + 1] - offsets[component]; }
+
+    /**
+     *
+     * @param component the component
+     * @param all_areas the areas the components were computed on
+     * @return the areas of the component, in ascending order of geo index
+     */
+    public ArrayList<Area> get_areas(int component , ArrayList<Area> all_areas)
+    {
+        ArrayList<Area> areas = new ArrayList<>(get_size(component));
+        for(int k = offsets[component] ; k < offsets[component + 1] ; k++)
+        {
+            areas.add(all_areas.get(members[k]));
+        }
+        return areas;
+    }
+}
@@ -0,0 +1,56 @@
+package util;
+
+/**
+ * This enum lists the criteria that decide whether two areas are neighbors.
+ * The exact criteria test the polygons with JTS, the hashed criteria round the coordinates to a grid and only compare boundary vertices,
+ * which runs in near-linear time but requires the polygons to share their boundary vertices, as in the TIGER/Line files
+ */
+public enum Contiguity {
+
+    /**
+     * The polygons intersect and the intersection is not a single point, this is the original criterion
+     */
+    INTERSECTION,
+
+    /**
+     * The boundaries share a segment of positive length, or the polygons overlap
+     */
+    ROOK,
+
+    /**
+     * The polygons touch, even at a single point
+     */
+    QUEEN,
+
+    /**
+     * The polygons have a boundary segment whose two rounded endpoints are the same, the hashed counterpart of ROOK
+     */
+    SHARED_EDGE,
+
+    /**
+     * The polygons have a rounded boundary vertex in common, the hashed counterpart of QUEEN
+     */
+    SHARED_VERTEX;
+
+    /**
+     * The default number of grid cells per unit of the coordinates used by the hashed criteria, 1e6 is about 0.1 meter for coordinates in degrees
+     */
+    public static final double DEFAULT_PRECISION = 1e6;
+
+    /**
+     * @return whether the criterion is evaluated by hashing the rounded boundary vertices instead of testing the polygons
+     */
+    public boolean is_hashed()
+    {
+        return this == SHARED_EDGE || this == SHARED_VERTEX;
+    }
+
+    /**
+     * @param name the name of a criterion, case insensitive
+     * @return the criterion
+     */
+    public static Contiguity parse(String name)
+    {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
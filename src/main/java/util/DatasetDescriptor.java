@@ -0,0 +1,244 @@
+package util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * This class describes how a dataset is loaded: the shapefile, the columns that become the similarity and extensive attributes, and their scaling factors.
+ * The descriptors are registered in the properties file DataFile/datasets.properties (or the file given by -Dpruc.datasets), e.g.
+ * <pre>
+ *   diversity.path=DataFile/diversity/2000data.shp
+ *   diversity.sim=ratio
+ *   diversity.sim_scale=1000
+ *   diversity.ext=cty_pop200
+ * </pre>
+ * A dataset without a shapefile is described by a GeoDa contiguity file (.gal or .gwt) and an attribute table (.csv or .dbf) instead of the path, e.g.
+ * <pre>
+ *   tracts.weights=DataFile/tracts/tracts.gal
+ *   tracts.attributes=DataFile/tracts/tracts.csv
+ *   tracts.id=GEOID
+ *   tracts.x=INTPTLON
+ *   tracts.y=INTPTLAT
+ *   tracts.sim=ALAND
+ *   tracts.ext=ALAND
+ * </pre>
+ * where id is the column matching the ids in the contiguity file (the row position when omitted) and x, y give the centroids, which are required since the seed identification uses their distances.
+ * The criterion deciding which areas of a shapefile are neighbors is set by name.contiguity (intersection, rook, queen, shared_edge or shared_vertex,
+ * see Contiguity) and name.precision gives the grid used by the hashed criteria.
+ */
+public class DatasetDescriptor {
+
+    public static final String REGISTRY_PROPERTY = "pruc.datasets";
+    public static final String DEFAULT_REGISTRY = "DataFile/datasets.properties";
+
+    private String name;
+    private File shapefile;
+    private String sim_column;
+    private String ext_column;
+    private double sim_scale;
+    private double ext_scale;
+    private File weights;
+    private File attributes;
+    private String id_column;
+    private String x_column;
+    private String y_column;
+    private Contiguity contiguity = Contiguity.INTERSECTION;
+    private double precision = Contiguity.DEFAULT_PRECISION;
+
+    /**
+     *
+     * @param name the name of the dataset
+     * @param shapefile the .shp file of the dataset
+     * @param sim_column the column that becomes the similarity attribute
+     * @param ext_column the column that becomes the extensive attribute
+     * @param sim_scale the factor the similarity column is multiplied by before it is truncated to a long
+     * @param ext_scale the factor the extensive column is multiplied by before it is truncated to a long
+     */
+    public DatasetDescriptor(String name , File shapefile , String sim_column , String ext_column , double sim_scale , double ext_scale)
+    {
+        this.name = name;
+        this.shapefile = shapefile;
+        this.sim_column = sim_column;
+        this.ext_column = ext_column;
+        this.sim_scale = sim_scale;
+        this.ext_scale = ext_scale;
+    }
+
+    /**
+     *
+     * @param name the name of the dataset
+     * @param weights the .gal or .gwt file holding the contiguity of the areas
+     * @param attributes the .csv or .dbf file holding the attributes of the areas
+     * @param id_column the column matching the ids of the contiguity file, null if the ids are row positions
+     * @param x_column the column of the x coordinate of the centroids, the loading fails when it is null
+     * @param y_column the column of the y coordinate of the centroids, the loading fails when it is null
+     * @param sim_column the column that becomes the similarity attribute
+     * @param ext_column the column that becomes the extensive attribute
+     * @param sim_scale the factor the similarity column is multiplied by before it is truncated to a long
+     * @param ext_scale the factor the extensive column is multiplied by before it is truncated to a long
+     */
+    public DatasetDescriptor(String name , File weights , File attributes , String id_column , String x_column , String y_column , String sim_column , String ext_column , double sim_scale , double ext_scale)
+    {
+        this(name , null , sim_column , ext_column , sim_scale , ext_scale);
+        this.weights = weights;
+        this.attributes = attributes;
+        this.id_column = id_column;
+        this.x_column = x_column;
+        this.y_column = y_column;
+    }
+
+    /**
+     * This method looks up a dataset in the registry
+     * @param name the name of the dataset
+     * @return the descriptor of the dataset
+     */
+    public static DatasetDescriptor of(String name) throws IOException {
+        Properties registry = load_registry();
+        String path = registry.getProperty(name + ".path");
+        String weights = registry.getProperty(name + ".weights");
+        if(path == null && weights == null)
+        {
+            throw new IOException("unknown dataset " + name + ", register it in " + registry_file());
+        }
+        String sim_column = registry.getProperty(name + ".sim");
+        String ext_column = registry.getProperty(name + ".ext");
+        if(sim_column == null || ext_column == null)
+        {
+            throw new IOException("the dataset " + name + " needs both " + name + ".sim and " + name + ".ext in " + registry_file());
+        }
+        double sim_scale = Double.parseDouble(registry.getProperty(name + ".sim_scale" , "1"));
+        double ext_scale = Double.parseDouble(registry.getProperty(name + ".ext_scale" , "1"));
+        if(path == null)
+        {
+            String attributes = registry.getProperty(name + ".attributes");
+            if(attributes == null)
+            {
+                throw new IOException("the dataset " + name + " needs " + name + ".attributes next to " + name + ".weights in " + registry_file());
+            }
+            return new DatasetDescriptor(name , new File(weights) , new File(attributes) , registry.getProperty(name + ".id") ,
+                    registry.getProperty(name + ".x") , registry.getProperty(name + ".y") , sim_column , ext_column , sim_scale , ext_scale);
+        }
+        DatasetDescriptor descriptor = new DatasetDescriptor(name , new File(path) , sim_column , ext_column , sim_scale , ext_scale);
+        String contiguity = registry.getProperty(name + ".contiguity");
+        if(contiguity != null)
+        {
+            try {
+                descriptor.set_contiguity(Contiguity.parse(contiguity) , Double.parseDouble(registry.getProperty(name + ".precision" , String.valueOf(Contiguity.DEFAULT_PRECISION))));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("unknown contiguity " + contiguity + " for the dataset " + name + " in " + registry_file());
+            }
+        }
+        return descriptor;
+    }
+
+    private static File registry_file()
+    {
+        return new File(System.getProperty(REGISTRY_PROPERTY , DEFAULT_REGISTRY));
+    }
+
+    private static Properties load_registry() throws IOException {
+        Properties registry = new Properties();
+        try (InputStream in = new FileInputStream(registry_file())) {
+            registry.load(in);
+        }
+        return registry;
+    }
+
+    /**
+     * This method converts a value of the similarity column to the similarity attribute
+     */
+    public long parse_sim(Object value)
+    {
+        return parse(value , sim_scale);
+    }
+
+    /**
+     * This method converts a value of the extensive column to the extensive attribute
+     */
+    public long parse_ext(Object value)
+    {
+        return parse(value , ext_scale);
+    }
+
+    private static long parse(Object value , double scale)
+    {
+        String text = value.toString().trim();
+        if(scale == 1)
+        {
+            try {
+                return Long.parseLong(text);
+            }
+            catch (NumberFormatException e) {
+                return (long)Double.parseDouble(text);
+            }
+        }
+        return (long)(scale * Double.parseDouble(text));
+    }
+
+    /**
+     * @return the columns that need to be read from the attribute table
+     */
+    public String[] get_columns()
+    {
+        if(sim_column.equals(ext_column))
+        {
+            return new String[]{sim_column};
+        }
+        return new String[]{sim_column , ext_column};
+    }
+
+    /**
+     * @return a string that identifies everything the loaded areas depend on besides the data files, used to key the cached graphs
+     */
+    public String key()
+    {
+        String source = shapefile != null ? shapefile.getPath() : weights.getPath() + "|" + attributes.getPath() + "|" + id_column + "|" + x_column + "|" + y_column;
+        String criterion = contiguity.is_hashed() ? contiguity + "@" + precision : contiguity.toString();
+        return name + "|" + source + "|" + sim_column + "*" + sim_scale + "|" + ext_column + "*" + ext_scale + "|" + criterion;
+    }
+
+    /**
+     *
+     * @param contiguity the criterion deciding which areas are neighbors
+     * @param precision the number of grid cells per unit of the coordinates, only used by the hashed criteria
+     */
+    public void set_contiguity(Contiguity contiguity , double precision)
+    {
+        this.contiguity = contiguity;
+        this.precision = precision;
+    }
+
+    /**
+     * @return whether the dataset is described by a contiguity file and an attribute table instead of a shapefile
+     */
+    public boolean has_weights()
+    {
+        return weights != null;
+    }
+
+    public String get_name() { return name; }
+
+    public File get_shapefile() { return shapefile; }
+
+    public String get_sim_column() { return sim_column; }
+
+    public String get_ext_column() { return ext_column; }
+
+    public File get_weights() { return weights; }
+
+    public File get_attributes() { return attributes; }
+
+    public String get_id_column() { return id_column; }
+
+    public String get_x_column() { return x_column; }
+
+    public String get_y_column() { return y_column; }
+
+    public Contiguity get_contiguity() { return contiguity; }
+
+    public double get_precision() { return precision; }
+}
@@ -0,0 +1,196 @@
+package util;
+
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * This class stores the areas built from a shapefile in a compact binary file next to the shapefile, so later runs load the
+ * areas without parsing the shapefile and recomputing the neighboring relations.
+ * The file holds the similarity and extensive attributes, the centroids, the connected components and the neighbor lists in CSR form (offsets + neighbor indices),
+ * together with a checksum of the dataset descriptor and the .shp and .dbf files so it is rebuilt whenever the source data or the attribute mapping changes
+ */
+public class GraphCache {
+
+    private static final int MAGIC = 0x50524743; //"PRGC"
+    private static final int VERSION = 3;
+    private static final String EXTENSION = ".pgraph";
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+
+    /**
+     *
+     * @param dataset the descriptor of the dataset
+     * @return the cached areas, or null if there is no cache or the cache is out of date
+     */
+    public static ArrayList<Area> load(DatasetDescriptor dataset) throws IOException {
+        File cache = cache_file(dataset);
+        if(!cache.exists())
+        {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(cache , "r"); FileChannel channel = raf.getChannel()) {
+            if(channel.size() < HEADER_BYTES)
+            {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY , 0 , channel.size());
+            if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != checksum(dataset))
+            {
+                return null;
+            }
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+            if(channel.size() != HEADER_BYTES + 8L * 4 * n + 4L * n + 4L * (n + 1) + 4L * m)
+            {
+                return null;
+            }
+
+            long[] sim = new long[n];
+            long[] ext = new long[n];
+            double[] cx = new double[n];
+            double[] cy = new double[n];
+            int[] component = new int[n];
+            int[] offsets = new int[n + 1];
+            int[] neighbors = new int[m];
+            buffer.asLongBuffer().get(sim);
+            buffer.position(buffer.position() + 8 * n);
+            buffer.asLongBuffer().get(ext);
+            buffer.position(buffer.position() + 8 * n);
+            buffer.asDoubleBuffer().get(cx);
+            buffer.position(buffer.position() + 8 * n);
+            buffer.asDoubleBuffer().get(cy);
+            buffer.position(buffer.position() + 8 * n);
+            buffer.asIntBuffer().get(component);
+            buffer.position(buffer.position() + 4 * n);
+            buffer.asIntBuffer().get(offsets);
+            buffer.position(buffer.position() + 4 * (n + 1));
+            buffer.asIntBuffer().get(neighbors);
+
+            ArrayList<Area> areas = new ArrayList<>(n);
+            for(int i = 0 ; i < n ; i++)
+            {
+                Area area = new Area(i , sim[i] , ext[i] , null);
+                area.set_centroid(new Coordinate(cx[i] , cy[i]));
+                area.set_component(component[i]);
+                area.set_neighbor_once(Arrays.copyOfRange(neighbors , offsets[i] , offsets[i + 1]));
+                areas.add(area);
+            }
+            return areas;
+        }
+    }
+
+    /**
+     * This method writes the areas to the cache file of the shapefile, the centroids and the components of the areas must have been set
+     * @param dataset the descriptor of the dataset
+     * @param areas the areas built from the shapefile
+     */
+    public static void store(DatasetDescriptor dataset , ArrayList<Area> areas) throws IOException {
+        int n = areas.size();
+        int m = 0;
+        for(Area area : areas)
+        {
+            m += area.get_neigh_area_index().length;
+        }
+
+        File cache = cache_file(dataset);
+        File tmp = new File(cache.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp) , 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checksum(dataset));
+            out.writeInt(n);
+            out.writeInt(m);
+            for(Area area : areas)
+            {
+                out.writeLong(area.get_internal_attr());
+            }
+            for(Area area : areas)
+            {
+                out.writeLong(area.get_extensive_attr());
+            }
+            for(Area area : areas)
+            {
+                out.writeDouble(area.get_centroid().getX());
+            }
+            for(Area area : areas)
+            {
+                out.writeDouble(area.get_centroid().getY());
+            }
+            for(Area area : areas)
+            {
+                out.writeInt(area.get_component());
+            }
+            int offset = 0;
+            out.writeInt(offset);
+            for(Area area : areas)
+            {
+                offset += area.get_neigh_area_index().length;
+                out.writeInt(offset);
+            }
+            for(Area area : areas)
+            {
+                for(int neigh_index : area.get_neigh_area_index())
+                {
+                    out.writeInt(neigh_index);
+                }
+            }
+        }
+
+        if(cache.exists() && !cache.delete() || !tmp.renameTo(cache))
+        {
+            tmp.delete();
+            throw new IOException("unable to write the cache file " + cache);
+        }
+    }
+
+    /**
+     * @return the cache file of a dataset, the name of the dataset is part of the file name so datasets sharing a shapefile do not overwrite each other
+     */
+    public static File cache_file(DatasetDescriptor dataset)
+    {
+        return new File(dataset.get_shapefile().getPath().replaceAll("\\.shp$" , "") + "." + dataset.get_name() + EXTENSION);
+    }
+
+    /**
+     * @return the CRC32 of the descriptor key and of the .shp and .dbf files of the dataset
+     */
+    private static long checksum(DatasetDescriptor dataset) throws IOException {
+        File shapefile = dataset.get_shapefile();
+        CRC32 crc = new CRC32();
+        crc.update(dataset.key().getBytes(StandardCharsets.UTF_8));
+        update(crc , shapefile);
+        update(crc , new File(shapefile.getPath().replaceAll("\\.shp$" , "") + ".dbf"));
+        return crc.getValue();
+    }
+
+    private static void update(CRC32 crc , File file) throws IOException {
+        if(!file.exists())
+        {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file , "r"); FileChannel channel = raf.getChannel()) {
+            long position = 0;
+            long size = channel.size();
+            while(position < size)
+            {
+                long length = Math.min(size - position , Integer.MAX_VALUE);
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY , position , length);
+                crc.update(buffer);
+                position += length;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * This class is a binary min-heap of the ids 0 to capacity - 1 keyed by long values. The position of every id in the heap is kept,
+ * so the key of an id is changed or the id is removed in O(log n). The ties are broken by the smaller id
+ */
+public class IndexedMinHeap {
+
+    private final int[] heap;
+    private final int[] position; //the position of every id in heap, -1 if the id is not in the heap
+    private final long[] key;
+    private int size;
+
+    /**
+     * @param capacity the number of ids
+     */
+    public IndexedMinHeap(int capacity)
+    {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new long[capacity];
+        Arrays.fill(position , -1);
+    }
+
+    /**
+     * This method adds an id that is not in the heap
+     * @param id the id
+     * @param value the key of the id
+     */
+    public void add(int id , long value)
+    {
+        key[id] = value;
+        heap[size] = id;
+        position[id] = size;
+        size++;
+        sift_up(size - 1);
+    }
+
+    /**
+     * This method changes the key of an id in the heap
+     * @param id the id
+     * @param value the new key of the id
+     */
+    public void update(int id , long value)
+    {
+        long old = key[id];
+        key[id] = value;
+        if(value < old)
+        {
+            sift_up(position[id]);
+        }
+        else
+        {
+            sift_down(position[id]);
+        }
+    }
+
+    /**
+     * This method removes an id from the heap, nothing is done if the id is not in the heap
+     * @param id the id
+     */
+    public void remove(int id)
+    {
+        int pos = position[id];
+        if(pos == -1)
+        {
+            return;
+        }
+        size--;
+        position[id] = -1;
+        if(pos == size)
+        {
+            return;
+        }
+        int last = heap[size];
+        heap[pos] = last;
+        position[last] = pos;
+        sift_up(pos);
+        sift_down(position[last]);
+    }
+
+    /**
+     * @return the id with the smallest key, -1 if the heap is empty
+     */
+    public int peek()
+    {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public boolean contains(int id) { return position[id] != -1; }
+
+    public boolean is_empty() { return size == 0; }
+
+    public int size() { return size; }
+
+    private boolean less(int a , int b)
+    {
+        return key[a] < key[b] || (key[a] == key[b] && a < b);
+    }
+
+    private void sift_up(int pos)
+    {
+        int id = heap[pos];
+        while(pos > 0)
+        {
+            int parent = (pos - 1) / 2;
+            if(!less(id , heap[parent]))
+            {
+                break;
+            }
+            heap[pos] = heap[parent];
+            position[heap[pos]] = pos;
+            pos = parent;
+        }
+        heap[pos] = id;
+        position[id] = pos;
+    }
+
+    private void sift_down(int pos)
+    {
+        int id = heap[pos];
+        while(true)
+        {
+            int child = 2 * pos + 1;
+            if(child >= size)
+            {
+                break;
+            }
+            if(child + 1 < size && less(heap[child + 1] , heap[child]))
+            {
+                child++;
+            }
+            if(!less(heap[child] , id))
+            {
+                break;
+            }
+            heap[pos] = heap[child];
+            position[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = id;
+        position[id] = pos;
+    }
+}
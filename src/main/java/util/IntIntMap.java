@@ -0,0 +1,155 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * This class is an open addressing hash map from non-negative int keys (e.g. geo indices) to int values, without boxing.
+ * The collisions are resolved by linear probing and the removals shift the following entries back, so there is no tombstone
+ */
+public class IntIntMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntMap()
+    {
+        this(8);
+    }
+
+    /**
+     * @param expected the expected number of entries
+     */
+    public IntIntMap(int expected)
+    {
+        int capacity = 8;
+        while(capacity < expected * 2)
+        {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys , EMPTY);
+    }
+
+    /**
+     * @param key the key
+     * @param missing the value returned if the key is absent
+     * @return the value of the key, or missing
+     */
+    public int get(int key , int missing)
+    {
+        int slot = find(key);
+        return keys[slot] == EMPTY ? missing : values[slot];
+    }
+
+    public boolean contains_key(int key)
+    {
+        return keys[find(key)] != EMPTY;
+    }
+
+    /**
+     * @param key the key, it must be non-negative
+     * @param value the value
+     */
+    public void put(int key , int value)
+    {
+        int slot = find(key);
+        if(keys[slot] == EMPTY)
+        {
+            keys[slot] = key;
+            size++;
+            if(size * 2 > keys.length)
+            {
+                values[slot] = value;
+                rehash(keys.length * 2);
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * @param key the key
+     * @param missing the value returned if the key is absent
+     * @return the value the key had, or missing
+     */
+    public int remove(int key , int missing)
+    {
+        int slot = find(key);
+        if(keys[slot] == EMPTY)
+        {
+            return missing;
+        }
+        int value = values[slot];
+        int mask = keys.length - 1;
+        //shift back the entries of the probe sequence that would become unreachable
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while(keys[next] != EMPTY)
+        {
+            int home = hash(keys[next]) & mask;
+            if(((next - home) & mask) >= ((next - hole) & mask))
+            {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return value;
+    }
+
+    public int size() { return size; }
+
+    public void clear()
+    {
+        Arrays.fill(keys , EMPTY);
+        size = 0;
+    }
+
+    private int find(int key)
+    {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while(keys[slot] != EMPTY && keys[slot] != key)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity)
+    {
+        int[] old_keys = keys;
+        int[] old_values = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys , EMPTY);
+        int mask = capacity - 1;
+        for(int k = 0 ; k < old_keys.length ; k++)
+        {
+            if(old_keys[k] == EMPTY)
+            {
+                continue;
+            }
+            int slot = hash(old_keys[k]) & mask;
+            while(keys[slot] != EMPTY)
+            {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = old_keys[k];
+            values[slot] = old_values[k];
+        }
+    }
+
+    private static int hash(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
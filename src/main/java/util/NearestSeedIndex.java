@@ -0,0 +1,316 @@
+package util;
+
+import java.util.ArrayList;
+
+/**
+ * This class keeps the squared distance from every area to its nearest seeded area while the seeded areas are added one by one,
+ * for the k-means++ and the farthest-point seeding. The centroids are bucketed in a uniform grid, so a new seeded area only visits the cells
+ * that may hold an area closer to it than to the previous seeded areas. A segment tree over the cells keeps the sum and the maximum of the squared distances,
+ * so an area is sampled with a probability proportional to its squared distance, or the farthest area is found, in O(log(cells) + cell size)
+ */
+public class NearestSeedIndex {
+
+    private final int n;
+    private final double[] x;
+    private final double[] y;
+    private final double[] nearest;
+    private final boolean[] seeded;
+
+    private double min_x;
+    private double min_y;
+    private double cell_size;
+    private int cols;
+    private int rows;
+    //the positions of the areas of the c-th cell are cell_areas[cell_start[c]] to cell_areas[cell_start[c + 1] - 1]
+    private int[] cell_start;
+    private int[] cell_areas;
+
+    //segment tree over the cells, the leaf of the c-th cell is leaf_num + c
+    private int leaf_num;
+    private double[] tree_sum;
+    private double[] tree_max;
+
+    /**
+     * No area is seeded at the beginning, so all the distances are infinite
+     * @param areas the areas, their centroids must be set
+     */
+    public NearestSeedIndex(ArrayList<Area> areas)
+    {
+        n = areas.size();
+        x = new double[n];
+        y = new double[n];
+        nearest = new double[n];
+        seeded = new boolean[n];
+        for(int i = 0 ; i < n ; i++)
+        {
+            x[i] = areas.get(i).get_centroid().getX();
+            y[i] = areas.get(i).get_centroid().getY();
+            nearest[i] = Double.POSITIVE_INFINITY;
+        }
+        build_grid();
+        leaf_num = 1;
+        while(leaf_num < cols * rows)
+        {
+            leaf_num <<= 1;
+        }
+        tree_sum = new double[2 * leaf_num];
+        tree_max = new double[2 * leaf_num];
+        for(int c = 0 ; c < cols * rows ; c++)
+        {
+            refresh_cell(c);
+        }
+    }
+
+    /**
+     * This method builds a grid of about two areas per cell over the bounding box of the centroids
+     */
+    private void build_grid()
+    {
+        min_x = Double.MAX_VALUE;
+        min_y = Double.MAX_VALUE;
+        double max_x = -Double.MAX_VALUE;
+        double max_y = -Double.MAX_VALUE;
+        for(int i = 0 ; i < n ; i++)
+        {
+            min_x = Math.min(min_x , x[i]);
+            min_y = Math.min(min_y , y[i]);
+            max_x = Math.max(max_x , x[i]);
+            max_y = Math.max(max_y , y[i]);
+        }
+        double width = Math.max(max_x - min_x , 0);
+        double height = Math.max(max_y - min_y , 0);
+        int target_cells = Math.max(1 , n / 2);
+        if(width > 0 && height > 0)
+        {
+            cell_size = Math.sqrt(width * height / target_cells);
+        }
+        else
+        {
+            cell_size = Math.max(width , height) / target_cells;
+        }
+        if(!(cell_size > 0))
+        {
+            cell_size = 1;
+        }
+        cols = (int)(width / cell_size) + 1;
+        rows = (int)(height / cell_size) + 1;
+
+        cell_start = new int[cols * rows + 1];
+        cell_areas = new int[n];
+        for(int i = 0 ; i < n ; i++)
+        {
+            cell_start[cell_of(i) + 1]++;
+        }
+        for(int c = 0 ; c < cols * rows ; c++)
+        {
+            cell_start[c + 1] += cell_start[c];
+        }
+        int[] fill = new int[cols * rows];
+        for(int i = 0 ; i < n ; i++)
+        {
+            int c = cell_of(i);
+            cell_areas[cell_start[c] + fill[c]++] = i;
+        }
+    }
+
+    private int col_of(double value)
+    {
+        return Math.min(cols - 1 , (int)((value - min_x) / cell_size));
+    }
+
+    private int row_of(double value)
+    {
+        return Math.min(rows - 1 , (int)((value - min_y) / cell_size));
+    }
+
+    private int cell_of(int i)
+    {
+        return row_of(y[i]) * cols + col_of(x[i]);
+    }
+
+    /**
+     * This method seeds an area and lowers the distances of the areas closer to it than to the previous seeded areas.
+     * The cells are visited ring by ring around the cell of the area, until no cell of the ring can be closer than the farthest area
+     * @param s the position of the area in the list given to the constructor
+     */
+    public void add_seed(int s)
+    {
+        seeded[s] = true;
+        int sc = col_of(x[s]);
+        int sr = row_of(y[s]);
+        for(int r = 0 ; ; r++)
+        {
+            //every point of a cell in the r-th ring is at least r - 1 cells away from the seeded area
+            double ring_dist = Math.max(0 , r - 1) * cell_size;
+            if(ring_dist * ring_dist >= tree_max[1])
+            {
+                return;
+            }
+            if(sc - r < 0 && sr - r < 0 && sc + r >= cols && sr + r >= rows)
+            {
+                return;
+            }
+            for(int row = sr - r ; row <= sr + r ; row++)
+            {
+                if(row < 0 || row >= rows)
+                {
+                    continue;
+                }
+                int step = (row == sr - r || row == sr + r) ? 1 : 2 * r;
+                for(int col = sc - r ; col <= sc + r ; col += Math.max(step , 1))
+                {
+                    if(col >= 0 && col < cols)
+                    {
+                        visit_cell(row * cols + col , s);
+                    }
+                }
+            }
+        }
+    }
+
+    private void visit_cell(int c , int s)
+    {
+        double leaf_max = tree_max[leaf_num + c];
+        if(leaf_max == 0)
+        {
+            return;
+        }
+        //the squared distance between the seeded area and the box of the cell
+        int col = c % cols;
+        int row = c / cols;
+        double dx = Math.max(0 , Math.max(min_x + col * cell_size - x[s] , x[s] - (min_x + (col + 1) * cell_size)));
+        double dy = Math.max(0 , Math.max(min_y + row * cell_size - y[s] , y[s] - (min_y + (row + 1) * cell_size)));
+        if(dx * dx + dy * dy >= leaf_max)
+        {
+            return;
+        }
+
+        boolean changed = false;
+        for(int k = cell_start[c] ; k < cell_start[c + 1] ; k++)
+        {
+            int i = cell_areas[k];
+            double ex = x[i] - x[s];
+            double ey = y[i] - y[s];
+            double dist = ex * ex + ey * ey;
+            if(dist < nearest[i])
+            {
+                nearest[i] = dist;
+                changed = true;
+            }
+        }
+        if(changed)
+        {
+            refresh_cell(c);
+        }
+    }
+
+    /**
+     * This method recomputes the sum and the maximum of the c-th cell from its areas, and then the nodes above its leaf
+     */
+    private void refresh_cell(int c)
+    {
+        double sum = 0;
+        double max = 0;
+        for(int k = cell_start[c] ; k < cell_start[c + 1] ; k++)
+        {
+            sum += nearest[cell_areas[k]];
+            max = Math.max(max , nearest[cell_areas[k]]);
+        }
+        int node = leaf_num + c;
+        tree_sum[node] = sum;
+        tree_max[node] = max;
+        for(node >>= 1 ; node > 0 ; node >>= 1)
+        {
+            tree_sum[node] = tree_sum[2 * node] + tree_sum[2 * node + 1];
+            tree_max[node] = Math.max(tree_max[2 * node] , tree_max[2 * node + 1]);
+        }
+    }
+
+    /**
+     * This method samples an area with a probability proportional to its squared distance to the nearest seeded area
+     * @param u a uniform random number in [0, 1)
+     * @return the position of the sampled area, -1 if all the distances are 0
+     */
+    public int sample(double u)
+    {
+        if(!(tree_sum[1] > 0) || Double.isInfinite(tree_sum[1]))
+        {
+            return -1;
+        }
+        double target = u * tree_sum[1];
+        int node = 1;
+        while(node < leaf_num)
+        {
+            int left = 2 * node;
+            //the rounding errors may leave the target just above the sum of the last non-empty subtree
+            if(target < tree_sum[left] || tree_sum[left + 1] == 0)
+            {
+                node = left;
+            }
+            else
+            {
+                target -= tree_sum[left];
+                node = left + 1;
+            }
+        }
+        int c = node - leaf_num;
+        int last = -1;
+        for(int k = cell_start[c] ; k < cell_start[c + 1] ; k++)
+        {
+            int i = cell_areas[k];
+            if(nearest[i] > 0)
+            {
+                last = i;
+                if(target < nearest[i])
+                {
+                    return i;
+                }
+                target -= nearest[i];
+            }
+        }
+        return last;
+    }
+
+    /**
+     * @return the position of the area with the greatest distance to its nearest seeded area, the first one of the grid order on ties
+     */
+    public int farthest()
+    {
+        int node = 1;
+        while(node < leaf_num)
+        {
+            node = tree_max[2 * node] == tree_max[node] ? 2 * node : 2 * node + 1;
+        }
+        int c = node - leaf_num;
+        for(int k = cell_start[c] ; k < cell_start[c + 1] ; k++)
+        {
+            if(nearest[cell_areas[k]] == tree_max[node])
+            {
+                return cell_areas[k];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first area in the list order that is not seeded, -1 if all the areas are seeded
+     */
+    public int first_unseeded()
+    {
+        for(int i = 0 ; i < n ; i++)
+        {
+            if(!seeded[i])
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean is_seeded(int i) { return seeded[i]; }
+
+    /**
+     * @return the squared distance between the area and its nearest seeded area, infinite if no area is seeded
+     */
+    public double get_nearest(int i) { return nearest[i]; }
+}
@@ -0,0 +1,255 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the assignment of the areas to the regions as a vector indexed by the geo index, together with the extensive attribute and the size
+ * of every region. The areas and their graph are never modified by a partition, so several runs can share the same read-only areas,
+ * and a solution is saved or restored by copying the assignment vector (see snapshot and restore).
+ * The number of neighbors of every area that are assigned to another region is updated in O(degree) on each assignment,
+ * so whether an area lies on the boundary between two regions is known in O(1).
+ * The adjacency between the regions is built on the first request and then updated on each assignment as well
+ */
+public class Partition {
+
+    private final AreaGraph graph;
+    private final int[] region_of;
+    private final long[] region_ext;
+    private final int[] region_size;
+    private final int[] external_degree;
+    private RegionAdjacency adjacency;
+
+    //the scratch space of the traversals of the regions, an area is visited in the current traversal if its stamp equals the epoch
+    private int[] visit_stamp;
+    private int[] stack;
+    private int epoch;
+
+    /**
+     * All the areas are unassigned at the beginning
+     * @param graph the graph of all the areas
+     * @param p the number of regions
+     */
+    public Partition(AreaGraph graph , int p)
+    {
+        this.graph = graph;
+        this.region_of = new int[graph.size()];
+        this.region_ext = new long[p];
+        this.region_size = new int[p];
+        this.external_degree = new int[graph.size()];
+        Arrays.fill(region_of , -1);
+    }
+
+    /**
+     * This method returns the partition shared by the regions
+     * @param regions the regions of a solution
+     * @return the partition of the regions, null if there is no region
+     */
+    public static Partition of(Region[] regions)
+    {
+        if(regions != null)
+        {
+            for(Region r : regions)
+            {
+                if(r != null && r.get_partition() != null)
+                {
+                    return r.get_partition();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the region of the area whose geo index is given, -1 if the area is unassigned
+     */
+    public int get_region(int geo_index) { return region_of[geo_index]; }
+
+    /**
+     * @return the region of the area, -1 if the area is unassigned
+     */
+    public int get_region(Area area) { return region_of[area.get_geo_index()]; }
+
+    public boolean is_assigned(Area area) { return region_of[area.get_geo_index()] != -1; }
+
+    /**
+     * This method assigns the area to the region, the area is removed from its previous region if it had one
+     * @param area the area
+     * @param region the index of the region
+     */
+    public void assign(Area area , int region)
+    {
+        unassign(area);
+        int i = area.get_geo_index();
+        region_of[i] = region;
+        region_ext[region] += graph.get_ext(i);
+        region_size[region]++;
+        update_external_degree(i , -1);
+        if(adjacency != null)
+        {
+            adjacency.add_area(i , region);
+        }
+    }
+
+    /**
+     * This method removes the area from its region, nothing happens if the area is unassigned
+     * @param area the area
+     */
+    public void unassign(Area area)
+    {
+        int i = area.get_geo_index();
+        int region = region_of[i];
+        if(region == -1)
+        {
+            return;
+        }
+        region_of[i] = -1;
+        region_ext[region] -= graph.get_ext(i);
+        region_size[region]--;
+        update_external_degree(i , region);
+        if(adjacency != null)
+        {
+            adjacency.remove_area(i , region);
+        }
+    }
+
+    /**
+     * This method updates the external degree of the i-th area and its neighbors after the area moved from the region previous to its current region
+     * @param i the geo index of the area that changed its region
+     * @param previous the region of the area before the change, -1 if it was unassigned
+     */
+    private void update_external_degree(int i , int previous)
+    {
+        int current = region_of[i];
+        int degree = 0;
+        for(int k = graph.begin(i) ; k < graph.end(i) ; k++)
+        {
+            int j = graph.neighbor(k);
+            int neigh_region = region_of[j];
+            if(neigh_region == -1)
+            {
+                continue;
+            }
+            int before = previous != -1 && previous != neigh_region ? 1 : 0;
+            int after = current != -1 && current != neigh_region ? 1 : 0;
+            external_degree[j] += after - before;
+            degree += after;
+        }
+        external_degree[i] = degree;
+    }
+
+    /**
+     * @return a copy of the assignment vector, the i-th entry is the region of the area whose geo index is i or -1
+     */
+    public int[] snapshot()
+    {
+        return region_of.clone();
+    }
+
+    /**
+     * This method replaces the assignment by a snapshot and recomputes the aggregates of the regions.
+     * The Region objects built on this partition are not updated, see Region.construct_region_from_assignment to rebuild them
+     * @param assignment the assignment vector returned by snapshot
+     */
+    public void restore(int[] assignment)
+    {
+        if(assignment.length != region_of.length)
+        {
+            throw new IllegalArgumentException("the assignment has " + assignment.length + " areas but the partition has " + region_of.length);
+        }
+        Arrays.fill(region_ext , 0);
+        Arrays.fill(region_size , 0);
+        for(int i = 0 ; i < region_of.length ; i++)
+        {
+            region_of[i] = assignment[i];
+            if(assignment[i] != -1)
+            {
+                region_ext[assignment[i]] += graph.get_ext(i);
+                region_size[assignment[i]]++;
+            }
+        }
+        for(int i = 0 ; i < region_of.length ; i++)
+        {
+            external_degree[i] = 0;
+            if(region_of[i] == -1)
+            {
+                continue;
+            }
+            for(int k = graph.begin(i) ; k < graph.end(i) ; k++)
+            {
+                int neigh_region = region_of[graph.neighbor(k)];
+                if(neigh_region != -1 && neigh_region != region_of[i])
+                {
+                    external_degree[i]++;
+                }
+            }
+        }
+        if(adjacency != null)
+        {
+            adjacency = new RegionAdjacency(this);
+        }
+    }
+
+    /**
+     * @return the number of neighbors of the area whose geo index is given that are assigned to a region other than the region of the area,
+     * 0 if the area is unassigned
+     */
+    public int get_external_degree(int geo_index) { return external_degree[geo_index]; }
+
+    /**
+     * @return whether the area has a neighbor in another region, i.e. it can be moved to a neighboring region
+     */
+    public boolean is_on_boundary(Area area) { return external_degree[area.get_geo_index()] > 0; }
+
+    /**
+     * @return the adjacency between the regions, it is built from the current assignment on the first call and kept up to date afterwards
+     */
+    public RegionAdjacency get_adjacency()
+    {
+        if(adjacency == null)
+        {
+            adjacency = new RegionAdjacency(this);
+        }
+        return adjacency;
+    }
+
+    /**
+     * This method starts a new traversal, the areas visited by the previous traversals become unvisited in O(1)
+     * @return the stack of the traversal, large enough to hold every area once
+     */
+    int[] begin_traversal()
+    {
+        if(visit_stamp == null)
+        {
+            visit_stamp = new int[region_of.length];
+            stack = new int[region_of.length];
+        }
+        epoch++;
+        if(epoch == Integer.MAX_VALUE)
+        {
+            Arrays.fill(visit_stamp , 0);
+            epoch = 1;
+        }
+        return stack;
+    }
+
+    /**
+     * @return true if the area whose geo index is given was not visited in the current traversal, it is visited afterwards
+     */
+    boolean visit(int geo_index)
+    {
+        if(visit_stamp[geo_index] == epoch)
+        {
+            return false;
+        }
+        visit_stamp[geo_index] = epoch;
+        return true;
+    }
+
+    public int get_region_num() { return region_size.length; }
+
+    public long get_region_ext(int region) { return region_ext[region]; }
+
+    public int get_region_size(int region) { return region_size[region]; }
+
+    public AreaGraph get_graph() { return graph; }
+}
@@ -2,20 +2,33 @@ package util;
 
 import org.geotools.data.DataStore;
 import org.geotools.data.DataStoreFinder;
-import org.geotools.data.FeatureSource;
+import org.geotools.data.Query;
 import org.geotools.feature.FeatureCollection;
 import org.geotools.feature.FeatureIterator;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Dimension;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.index.strtree.STRtree;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.filter.Filter;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class preprocess the data by reading the data from the shapefile, creating the area class and build the neighboring relations
@@ -24,117 +37,200 @@ public class Preprocess {
 
 
     public static ArrayList<Area> GeoSetBuilder(String dataset) throws IOException {
-        ArrayList<Area> areas = new ArrayList<>();
-        FeatureCollection<SimpleFeatureType, SimpleFeature> collection = preprocess(dataset);
-        ArrayList<Geometry> polygons = initial_construct(collection , areas, dataset);
-        setNeighbors(polygons , areas);
+        return GeoSetBuilder(dataset , Runtime.getRuntime().availableProcessors() , false);
+    }
+
+    public static ArrayList<Area> GeoSetBuilder(String dataset , int thread_num) throws IOException {
+        return GeoSetBuilder(dataset , thread_num , false);
+    }
+
+    /**
+     * The areas are loaded from the binary cache next to the shapefile when it is up to date,
+     * otherwise they are built from the shapefile and written to the cache
+     * @param dataset the name of the dataset, or the spec of a synthetic dataset starting with "synthetic:", see SyntheticGenerator
+     * @param thread_num the number of threads used to build the neighboring relations, 1 means the sequential construction
+     * @param keep_geometry whether the areas keep their coordinates, by default only the centroids are kept and the polygons can be read again with load_geometries
+     * @return the areas of the dataset with their neighboring relations
+     */
+    public static ArrayList<Area> GeoSetBuilder(String dataset , int thread_num , boolean keep_geometry) throws IOException {
+        if(dataset.startsWith(SyntheticGenerator.PREFIX))
+        {
+            return SyntheticGenerator.generate(dataset);
+        }
+        return GeoSetBuilder(DatasetDescriptor.of(dataset) , thread_num , keep_geometry);
+    }
+
+    /**
+     *
+     * @param dataset the descriptor of the dataset, which allows loading shapefiles that are not in the registry
+     * @param thread_num the number of threads used to build the neighboring relations, 1 means the sequential construction
+     * @param keep_geometry whether the areas keep their coordinates, ignored for a dataset given by a contiguity file since it has no polygon
+     * @return the areas of the dataset with their neighboring relations and connected components
+     */
+    public static ArrayList<Area> GeoSetBuilder(DatasetDescriptor dataset , int thread_num , boolean keep_geometry) throws IOException {
+        if(dataset.has_weights())
+        {
+            ArrayList<Area> areas = WeightsFile.load(dataset);
+            ConnectedComponents.label(areas);
+            return areas;
+        }
+        ArrayList<Area> areas = keep_geometry ? null : GraphCache.load(dataset);
+        if(areas != null)
+        {
+            return areas;
+        }
+
+        areas = new ArrayList<>();
+        Contiguity mode = dataset.get_contiguity();
+        if(mode.is_hashed())
+        {
+            SharedBoundaryIndex boundaries = new SharedBoundaryIndex(mode , dataset.get_precision());
+            load_polygons(dataset , areas , keep_geometry , null , boundaries);
+            boundaries.set_neighbors(areas);
+        }
+        else
+        {
+            build_neighbors(dataset , areas , thread_num , keep_geometry);
+        }
+
+        for(Area area : areas)
+        {
+            area.set_centroid();
+        }
+        ConnectedComponents.label(areas);
+        try {
+            GraphCache.store(dataset , areas);
+        }
+        catch (IOException e) {
+            System.out.println("unable to cache the dataset " + dataset.get_name() + ": " + e.getMessage());
+        }
         return areas;
     }
 
-    private static FeatureCollection<SimpleFeatureType, SimpleFeature> preprocess(String dataset) throws IOException {
-
-        File file = null;
-        switch (dataset) {
-            case "50":
-                file = new File("DataFile/50/connected_50_areas.shp");
-                break;
-            case "500":
-                file = new File("DataFile/500/500.shp");
-                break;
-            case "2k":
-                file = new File("DataFile/2056dataset/merged.shp");
-                break;
-            case "diversity":
-                file = new File("DataFile/diversity/2000data.shp");
-                break;
-            case "island":
-                file = new File("DataFile/islanddata/WAandPENN.shp");
-                break;
-            case "5k":
-                file = new File("DataFile/5K/5K.shp");
-                break;
-            case "10k":
-                file = new File("DataFile/10K/10K.shp");
-                break;
-            case "20k":
-                file = new File("DataFile/20K/20K.shp");
-                break;
-            case "30k":
-                file = new File("DataFile/30K/30K.shp");
-                break;
-            case "40k":
-                file = new File("DataFile/40K/40K.shp");
-                break;
-            case "50k":
-                file = new File("DataFile/50K/50K.shp");
-                break;
-            case "60k":
-                file = new File("DataFile/60K/60K.shp");
-                break;
-            case "70k":
-                file = new File("DataFile/70K/70K.shp");
-                break;
-            case "80k":
-                file = new File("DataFile/80K/80K.shp");
-                break;
-        }
-        //System.out.println(file.getTotalSpace());
+    private static void build_neighbors(DatasetDescriptor dataset , ArrayList<Area> areas , int thread_num , boolean keep_geometry) throws IOException {
+        Contiguity mode = dataset.get_contiguity();
+        STRtree index = new STRtree();
+        ArrayList<Geometry> polygons = load_polygons(dataset , areas , keep_geometry , index , null);
+        if(thread_num > 1)
+        {
+            try {
+                setNeighbors_parallel(polygons , index , areas , thread_num , mode);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while building the neighboring relations of " + dataset.get_name());
+            }
+        }
+        else
+        {
+            setNeighbors(polygons , index , areas , mode);
+        }
+    }
+
+    /**
+     * This method reads the shapefile of a dataset and creates the areas without building the neighboring relations
+     * @param dataset the name of the dataset
+     * @param areas the list that receives the created areas, the i-th area corresponds to the i-th returned polygon
+     * @return the polygons of the areas
+     */
+    public static ArrayList<Geometry> load_polygons(String dataset , ArrayList<Area> areas) throws IOException {
+        return load_polygons(DatasetDescriptor.of(dataset) , areas , false , null , null);
+    }
+
+    /**
+     * This method streams the features of the shapefile in a single pass: each feature becomes an area right away and,
+     * if an index is given, the envelope of its polygon is inserted into the index as it arrives.
+     * If a boundary index is given, the boundary of the polygon is hashed instead and the polygon is not kept, so the returned list is empty.
+     * The data store stays open while the features are read and is disposed afterwards. Only the geometry and the two attribute columns are read
+     */
+    private static ArrayList<Geometry> load_polygons(DatasetDescriptor dataset , ArrayList<Area> areas , boolean keep_geometry , STRtree index , SharedBoundaryIndex boundaries) throws IOException {
+        DataStore dataStore = open_data_store(dataset.get_shapefile());
+        try {
+            String typeName = dataStore.getTypeNames()[0];
+            String[] columns = dataset.get_columns();
+            String[] properties = new String[columns.length + 1];
+            properties[0] = dataStore.getSchema(typeName).getGeometryDescriptor().getLocalName();
+            System.arraycopy(columns , 0 , properties , 1 , columns.length);
+            FeatureCollection<SimpleFeatureType, SimpleFeature> collection = dataStore.getFeatureSource(typeName).getFeatures(new Query(typeName , Filter.INCLUDE , properties));
+            return initial_construct(collection , areas, dataset , keep_geometry , index , boundaries);
+        }
+        finally {
+            dataStore.dispose();
+        }
+    }
+
+    /**
+     * This method reads the polygons of a dataset from disk, it is meant for exporting or visualizing the areas that were loaded without geometry
+     * @param dataset the name of the dataset
+     * @return the polygons, the i-th polygon corresponds to the area whose geo index is i
+     */
+    public static ArrayList<Geometry> load_geometries(String dataset) throws IOException {
+        DatasetDescriptor descriptor = DatasetDescriptor.of(dataset);
+        if(descriptor.has_weights())
+        {
+            throw new IOException("the dataset " + dataset + " is given by a contiguity file and has no polygon");
+        }
+        ArrayList<Geometry> polygons = new ArrayList<>();
+        DataStore dataStore = open_data_store(descriptor.get_shapefile());
+        try (FeatureIterator<SimpleFeature> features = dataStore.getFeatureSource(dataStore.getTypeNames()[0]).getFeatures(Filter.INCLUDE).features()) {
+            while (features.hasNext()) {
+                polygons.add((Geometry) features.next().getDefaultGeometry());
+            }
+        }
+        finally {
+            dataStore.dispose();
+        }
+        return polygons;
+    }
+
+    private static DataStore open_data_store(File file) throws IOException {
         Map<String, Object> map = new HashMap<>();
         map.put("url", file.toURI().toURL());
         DataStore dataStore = DataStoreFinder.getDataStore(map);
-        String typeName = dataStore.getTypeNames()[0];
-        FeatureSource<SimpleFeatureType, SimpleFeature> source =
-                dataStore.getFeatureSource(typeName);
-        Filter filter = Filter.INCLUDE;
-        dataStore.dispose();
-        return source.getFeatures(filter);
+        if(dataStore == null)
+        {
+            throw new IOException("unable to open " + file);
+        }
+        return dataStore;
     }
 
-    private static ArrayList<Geometry> initial_construct(FeatureCollection<SimpleFeatureType, SimpleFeature> collection , ArrayList<Area> areas, String dataset)
+    /**
+     * When keep_geometry is false, the centroid of each area is computed here and the coordinates are dropped right away
+     */
+    private static ArrayList<Geometry> initial_construct(FeatureCollection<SimpleFeatureType, SimpleFeature> collection , ArrayList<Area> areas, DatasetDescriptor dataset , boolean keep_geometry , STRtree index , SharedBoundaryIndex boundaries)
     {
         ArrayList<Geometry> polygons = new ArrayList<>();
         int geo_index = 0;
         try (FeatureIterator<SimpleFeature> features = collection.features()) {
             while (features.hasNext()) {
                 SimpleFeature feature = features.next();
-                long extensive_attr ;
-                long internal_attr;
+                long extensive_attr = dataset.parse_ext(feature.getAttribute(dataset.get_ext_column()));
+                long internal_attr = dataset.parse_sim(feature.getAttribute(dataset.get_sim_column()));
 
-                if(dataset.equals("2k"))
+                Geometry polygon = (Geometry) feature.getDefaultGeometry();
+                if(boundaries != null)
                 {
-                    extensive_attr = Long.parseLong((feature.getAttribute("aland").toString()));
-                    internal_attr  = Long.parseLong(feature.getAttribute("aland").toString());
+                    boundaries.add(geo_index , polygon);
                 }
-
-                else if(dataset.equals("50")) // 专门为50个区域的子集处理
+                else
                 {
-                    internal_attr = Long.parseLong((feature.getAttribute("aland").toString())); // 使用aland作为内部属性
-                    extensive_attr = Long.parseLong(feature.getAttribute("aland").toString()); // 使用awater作为广域属性
+                    polygons.add(polygon);
                 }
-
-                else if(dataset.equals("500")) // 专门为500个区域的子集处理
+                if(index != null)
                 {
-                    internal_attr = Long.parseLong((feature.getAttribute("aland").toString())); // 使用aland作为内部属性
-                    extensive_attr = Long.parseLong(feature.getAttribute("aland").toString()); // 使用awater作为广域属性
+                    index.insert(polygon.getEnvelopeInternal() , geo_index);
                 }
-
-                else if(dataset.equals("diversity"))
+                Coordinate[] coor = polygon.getCoordinates();
+                Area newArea;
+                if(keep_geometry)
                 {
-                    extensive_attr = (long)Double.parseDouble((feature.getAttribute("cty_pop200").toString()));
-                    internal_attr = (long)(1000 * Double.parseDouble((feature.getAttribute("ratio").toString())));
-
+                    newArea = new Area(geo_index , internal_attr , extensive_attr , coor);
                 }
-
                 else
                 {
-                    extensive_attr = Long.parseLong((feature.getAttribute("ALAND").toString()));
-                    internal_attr  = Long.parseLong(feature.getAttribute("ALAND").toString());
+                    newArea = new Area(geo_index , internal_attr , extensive_attr , null);
+                    newArea.set_centroid(Area.compute_centroid(coor));
                 }
-
-                Geometry polygon = (Geometry) feature.getDefaultGeometry();
-                polygons.add(polygon);
-                Coordinate[] coor = polygon.getCoordinates();
-                Area newArea = new Area(geo_index , internal_attr , extensive_attr , coor);
                 geo_index ++;
                 areas.add(newArea);
             }
@@ -144,28 +240,281 @@ public class Preprocess {
 
     }
 
-    private static void setNeighbors(ArrayList<Geometry> polygons , ArrayList<Area> areas)
+    /**
+     * This method builds the neighboring relations with an STR-tree over the envelopes of the polygons.
+     * Only the pairs whose envelopes overlap go through the exact intersection test, and the resulting neighbor lists are identical to setNeighbors_pairwise
+     * @param polygons the polygons of the areas
+     * @param areas the areas, the i-th area corresponds to the i-th polygon
+     */
+    public static void setNeighbors(ArrayList<Geometry> polygons , ArrayList<Area> areas)
+    {
+        setNeighbors(polygons , areas , Contiguity.INTERSECTION);
+    }
+
+    /**
+     * This method builds the neighboring relations under the given criterion, the hashed criteria round the coordinates with Contiguity.DEFAULT_PRECISION
+     * @param polygons the polygons of the areas
+     * @param areas the areas, the i-th area corresponds to the i-th polygon
+     * @param mode the criterion deciding which areas are neighbors
+     */
+    public static void setNeighbors(ArrayList<Geometry> polygons , ArrayList<Area> areas , Contiguity mode)
+    {
+        if(mode.is_hashed())
+        {
+            SharedBoundaryIndex boundaries = new SharedBoundaryIndex(mode , Contiguity.DEFAULT_PRECISION);
+            for (int i = 0; i < polygons.size(); i++) {
+                boundaries.add(i , polygons.get(i));
+            }
+            boundaries.set_neighbors(areas);
+            return;
+        }
+        setNeighbors(polygons , build_envelope_index(polygons) , areas , mode);
+    }
+
+    private static void setNeighbors(ArrayList<Geometry> polygons , STRtree index , ArrayList<Area> areas , Contiguity mode)
+    {
+        NeighborBuffer buffer = new NeighborBuffer();
+        for (int i = 0; i < polygons.size(); i++) {
+
+            for (int j : find_candidates(index , polygons , i)) {
+
+                if (is_neighbor(polygons.get(i) , polygons.get(j) , mode)) {
+
+                    buffer.add(i , j);
+                }
+            }
+        }
+        set_neighbors(areas , Collections.singletonList(buffer));
+    }
+
+    /**
+     * This method builds the same neighboring relations as setNeighbors with multiple threads.
+     * The polygons are split into chunks of consecutive indices, each task collects the neighboring pairs of its chunk into its own buffer,
+     * and the buffers are merged in the chunk order so the neighbor lists are identical to the sequential construction
+     * @param polygons the polygons of the areas
+     * @param areas the areas, the i-th area corresponds to the i-th polygon
+     * @param thread_num the number of threads
+     */
+    public static void setNeighbors_parallel(ArrayList<Geometry> polygons , ArrayList<Area> areas , int thread_num) throws InterruptedException
+    {
+        setNeighbors_parallel(polygons , areas , thread_num , Contiguity.INTERSECTION);
+    }
+
+    /**
+     * @param mode the criterion deciding which areas are neighbors, the hashed criteria are sequential since they are already near-linear
+     */
+    public static void setNeighbors_parallel(ArrayList<Geometry> polygons , ArrayList<Area> areas , int thread_num , Contiguity mode) throws InterruptedException
+    {
+        if(mode.is_hashed())
+        {
+            setNeighbors(polygons , areas , mode);
+            return;
+        }
+        setNeighbors_parallel(polygons , build_envelope_index(polygons) , areas , thread_num , mode);
+    }
+
+    private static void setNeighbors_parallel(ArrayList<Geometry> polygons , STRtree index , ArrayList<Area> areas , int thread_num , Contiguity mode) throws InterruptedException
+    {
+        index.build();
+        int chunk_size = Math.max(64 , polygons.size() / (thread_num * 16));
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(thread_num);
+        ArrayList<Future<NeighborBuffer>> results = new ArrayList<>();
+        try {
+            for (int from = 0; from < polygons.size(); from += chunk_size) {
+                results.add(threadPool.submit(new NeighborSearch(index , polygons , from , Math.min(from + chunk_size , polygons.size()) , mode)));
+            }
+
+            ArrayList<NeighborBuffer> buffers = new ArrayList<>();
+            for (Future<NeighborBuffer> result : results) {
+                buffers.add(result.get());
+            }
+            set_neighbors(areas , buffers);
+        }
+        catch (ExecutionException e) {
+            throw new RuntimeException("failed to build the neighboring relations", e.getCause());
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * This method builds the neighboring relations by testing every pair of polygons, it is kept as the reference for the index based builders
+     * @param polygons the polygons of the areas
+     * @param areas the areas, the i-th area corresponds to the i-th polygon
+     */
+    public static void setNeighbors_pairwise(ArrayList<Geometry> polygons , ArrayList<Area> areas)
     {
+        NeighborBuffer buffer = new NeighborBuffer();
         for (int i = 0; i < polygons.size(); i++) {
 
             for (int j = i + 1; j < polygons.size(); j++) {
 
-                if (polygons.get(i).intersects(polygons.get(j))) {
+                if (is_neighbor(polygons.get(i) , polygons.get(j) , Contiguity.INTERSECTION)) {
+
+                    buffer.add(i , j);
+                }
+            }
+        }
+        set_neighbors(areas , Collections.singletonList(buffer));
+    }
+
+    private static STRtree build_envelope_index(ArrayList<Geometry> polygons)
+    {
+        STRtree index = new STRtree();
+        for (int i = 0; i < polygons.size(); i++) {
+            index.insert(polygons.get(i).getEnvelopeInternal() , i);
+        }
+        index.build();
+        return index;
+    }
 
-                    Geometry intersection = polygons.get(i).intersection(polygons.get(j));
+    /**
+     * @return the indices greater than i whose envelope overlaps the envelope of the i-th polygon, in ascending order
+     */
+    private static int[] find_candidates(STRtree index , ArrayList<Geometry> polygons , int i)
+    {
+        List<?> hits = index.query(polygons.get(i).getEnvelopeInternal());
+        int[] candidates = new int[hits.size()];
+        int count = 0;
+        for (Object hit : hits) {
+            int j = (Integer) hit;
+            if (j > i) {
+                candidates[count++] = j;
+            }
+        }
+        candidates = Arrays.copyOf(candidates , count);
+        Arrays.sort(candidates);
+        return candidates;
+    }
 
-                    if (intersection.getGeometryType() != "Point") {
+    /**
+     * Under the original criterion two polygons are neighbors if they intersect and the intersection is not a single point.
+     * The rook criterion reads the intersection matrix instead of computing the intersection, i.e. the boundaries share a line or the interiors overlap,
+     * so it only differs from the original criterion for polygons touching at several isolated points. The queen criterion only requires the polygons to intersect
+     */
+    private static boolean is_neighbor(Geometry g1 , Geometry g2 , Contiguity mode)
+    {
+        if (!g1.intersects(g2)) {
+            return false;
+        }
+        switch (mode) {
+            case QUEEN:
+                return true;
+            case ROOK:
+                IntersectionMatrix matrix = g1.relate(g2);
+                return matrix.get(Location.INTERIOR , Location.INTERIOR) == Dimension.A || matrix.get(Location.BOUNDARY , Location.BOUNDARY) >= Dimension.L;
+            default:
+                Geometry intersection = g1.intersection(g2);
+                return !intersection.getGeometryType().equals("Point");
+        }
+    }
 
-                        areas.get(i).add_neighbor(j);
-                        areas.get(j).add_neighbor(i);
 
+    /**
+     * This class finds the neighboring pairs (i, j) with i in [from, to) and j > i
+     */
+    static class NeighborSearch implements Callable<NeighborBuffer>
+    {
+        STRtree index;
+        ArrayList<Geometry> polygons;
+        int from;
+        int to;
+        Contiguity mode;
+
+        public NeighborSearch(STRtree index , ArrayList<Geometry> polygons , int from , int to , Contiguity mode)
+        {
+            this.index = index;
+            this.polygons = polygons;
+            this.from = from;
+            this.to = to;
+            this.mode = mode;
+        }
 
+        public NeighborBuffer call()
+        {
+            NeighborBuffer buffer = new NeighborBuffer();
+            for (int i = from; i < to; i++) {
+                for (int j : find_candidates(index , polygons , i)) {
+                    if (is_neighbor(polygons.get(i) , polygons.get(j) , mode)) {
+                        buffer.add(i , j);
                     }
                 }
             }
+            return buffer;
         }
+    }
 
+    /**
+     * This method appends the neighboring pairs of the buffers to the neighbor lists of the areas. The lists are counted first and then filled,
+     * so every area gets one array of the final size, and the neighbors are in the order of the pairs as if they were added one by one
+     * @param areas the areas, whose current neighbors are kept in front
+     * @param buffers the neighboring pairs, every pair (i, j) adds j to the neighbors of i and i to the neighbors of j
+     */
+    static void set_neighbors(ArrayList<Area> areas , List<NeighborBuffer> buffers)
+    {
+        int n = areas.size();
+        int[] offsets = new int[n + 1];
+        for(int i = 0 ; i < n ; i++)
+        {
+            offsets[i + 1] = areas.get(i).get_neigh_area_index().length;
+        }
+        for(NeighborBuffer buffer : buffers)
+        {
+            for(int k = 0 ; k < buffer.size ; k++)
+            {
+                offsets[buffer.from[k] + 1]++;
+                offsets[buffer.to[k] + 1]++;
+            }
+        }
+        for(int i = 0 ; i < n ; i++)
+        {
+            offsets[i + 1] += offsets[i];
+        }
 
+        int[][] neighbors = new int[n][];
+        int[] fill = new int[n];
+        for(int i = 0 ; i < n ; i++)
+        {
+            int[] current = areas.get(i).get_neigh_area_index();
+            neighbors[i] = Arrays.copyOf(current , offsets[i + 1] - offsets[i]);
+            fill[i] = current.length;
+        }
+        for(NeighborBuffer buffer : buffers)
+        {
+            for(int k = 0 ; k < buffer.size ; k++)
+            {
+                int i = buffer.from[k];
+                int j = buffer.to[k];
+                neighbors[i][fill[i]++] = j;
+                neighbors[j][fill[j]++] = i;
+            }
+        }
+        for(int i = 0 ; i < n ; i++)
+        {
+            areas.get(i).set_neighbor_once(neighbors[i]);
+        }
+    }
 
+    /**
+     * The growable primitive buffer of neighboring pairs owned by a single task
+     */
+    static class NeighborBuffer
+    {
+        int[] from = new int[256];
+        int[] to = new int[256];
+        int size;
+
+        void add(int i , int j)
+        {
+            if (size == from.length) {
+                from = Arrays.copyOf(from , size * 2);
+                to = Arrays.copyOf(to , size * 2);
+            }
+            from[size] = i;
+            to[size] = j;
+            size++;
+        }
     }
 }
@@ -1,37 +1,62 @@
 package util;
 
 
-import GSLO.Seed;
-
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * This class describes the Region that is composed of a set of areas
  */
 public class Region {
     private ArrayList<Area> all_areas;
-    private ArrayList<Area> areas_in_region;
-    private ArrayList<Area> areas_on_margin;
+    private AreaSet areas_in_region;
+    private AreaSet areas_on_margin;
     private int region_id;
     private boolean region_complete;
     private long threshold;
     public long region_extensive_attr;
     private long region_heterogeneity;
-    private ArrayList<Area> neigh_areas;
-
-
-    public Region(int region_id , Area g , long threshold , ArrayList<Area> all_areas)
+    private AreaSet neigh_areas;
+    //the number of neighbors in the region of every area in or next to the region
+    private IntIntMap connection;
+    private AreaGraph graph;
+    private Partition partition;
+    private AttributeTree sim_tree;
+
+
+    /**
+     *
+     * @param region_id the index of the region
+     * @param g the first area of the region
+     * @param threshold the value on the user-defined constraint
+     * @param partition the assignment of the areas to the regions, shared by all the regions of a solution
+     */
+    public Region(int region_id , Area g , long threshold , Partition partition)
     {
-        areas_in_region = new ArrayList<>();
-        areas_on_margin = new ArrayList<>();
+        areas_in_region = new AreaSet();
+        areas_on_margin = new AreaSet();
+        connection = new IntIntMap();
         this.threshold = threshold;
-        this.all_areas = all_areas;
-        g.set_region(region_id);
+        this.partition = partition;
+        this.graph = partition.get_graph();
+        this.all_areas = graph.get_areas();
+        partition.assign(g , region_id);
         areas_in_region.add(g);
-        areas_on_margin.add(g);
+        sim_tree = new AttributeTree();
+        sim_tree.insert(g.get_internal_attr());
         region_complete = false;
         this.region_id = region_id;
-        neigh_areas = (ArrayList<Area>)g.get_neigh_area(all_areas).clone();
+        neigh_areas = new AreaSet(graph.degree(g.get_geo_index()));
+        for(int k = graph.begin(g.get_geo_index()) ; k < graph.end(g.get_geo_index()) ; k++)
+        {
+            connection.put(graph.neighbor(k) , 1);
+            neigh_areas.add(graph.get_area(graph.neighbor(k)));
+        }
+        if(graph.degree(g.get_geo_index()) > 0)
+        {
+            areas_on_margin.add(g);
+        }
         region_extensive_attr = g.get_extensive_attr();
         if(region_extensive_attr > threshold)
         {
@@ -41,9 +66,14 @@ public class Region {
 
     public Region(ArrayList<Area> areas_in_region , long threshold , long hetero , long total_extensive_attribute)
     {
+        sim_tree = new AttributeTree();
+        for(Area area : areas_in_region)
+        {
+            sim_tree.insert(area.get_internal_attr());
+        }
         if(hetero > 0 && total_extensive_attribute > 0)
         {
-            this.areas_in_region = areas_in_region;
+            this.areas_in_region = new AreaSet(areas_in_region);
             this.region_extensive_attr = total_extensive_attribute;
             this.region_heterogeneity = hetero;
             region_complete = region_extensive_attr >= threshold;
@@ -51,7 +81,7 @@ public class Region {
 
         else
         {
-            this.areas_in_region = areas_in_region;
+            this.areas_in_region = new AreaSet(areas_in_region);
             this.region_extensive_attr = 0;
             this.region_heterogeneity = 0;
 
@@ -61,13 +91,7 @@ public class Region {
                 region_extensive_attr += area.get_extensive_attr();
             }
 
-            for(int i = 0; i < areas_in_region.size() ; i++)
-            {
-                for(int j = i + 1; j < areas_in_region.size() ; j++)
-                {
-                    region_heterogeneity += Math.abs(areas_in_region.get(i).get_internal_attr() - areas_in_region.get(j).get_internal_attr());
-                }
-            }
+            region_heterogeneity = compute_hetero(areas_in_region);
 
             region_complete = region_extensive_attr >= threshold;
         }
@@ -80,37 +104,17 @@ public class Region {
 
 
 
+    /**
+     * This method adds an area to the region. The neighbors of the area update their number of neighbors in the region,
+     * so the margin and the neighboring areas are updated in O(degree) without visiting the neighbors of the neighbors
+     * @param area the area to add
+     */
     public void add_area_to_region(Area area) {
 
-        area.set_region(region_id);
+        partition.assign(area , region_id);
         areas_in_region.add(area);
         neigh_areas.remove(area);
 
-        ArrayList<Area> area_to_add = new ArrayList<Area>();
-        for(Area neigh_area : area.get_neigh_area(all_areas))
-        {
-            if(neigh_area.get_associated_region_index() != this.region_id && !neigh_areas.contains(neigh_area))
-            {
-                if(!area_to_add.contains(neigh_area))
-                {
-                    area_to_add.add(neigh_area);
-                }
-            }
-        }
-        neigh_areas.addAll(area_to_add);
-
-
-        /*
-        ArrayList<GeoArea> areas_to_add = (ArrayList<GeoArea>)area.get_neigh_area(all_areas).clone();
-        areas_to_add.removeAll(neigh_areas);
-        areas_to_add.removeAll(areas_in_region);
-        neigh_areas.addAll(areas_to_add);
-
-
-         */
-
-
-
         region_extensive_attr += area.get_extensive_attr();
         if(region_extensive_attr > threshold)
         {
@@ -118,241 +122,176 @@ public class Region {
         }
         long incre = compute_hetero_incre(area);
         region_heterogeneity += incre;
+        sim_tree.insert(area.get_internal_attr());
 
-
-
-        boolean add_flag = false;
-        for(Area area_neigh : area.get_neigh_area(all_areas))
+        for(int k = graph.begin(area.get_geo_index()) ; k < graph.end(area.get_geo_index()) ; k++)
         {
-            if(area_neigh.get_associated_region_index() != this.get_region_index())
+            int neigh_index = graph.neighbor(k);
+            int connection_num = connection.get(neigh_index , 0) + 1;
+            connection.put(neigh_index , connection_num);
+            if(partition.get_region(neigh_index) == this.region_id)
             {
-                add_flag = true;
-                break;
-            }
-        }
-        if(add_flag)
-        {
-            areas_on_margin.add(area);
-        }
-
-        for(Area neigh : area.get_neigh_area(all_areas))
-        {
-            if(neigh.get_associated_region_index() == this.region_id)
-            {
-                if(areas_on_margin.contains(neigh))
+                //all the neighbors of the neighbor are in the region now
+                if(connection_num == graph.degree(neigh_index))
                 {
-                    boolean on_margin_flag = false;
-                    for(Area neigh_neigh : neigh.get_neigh_area(all_areas))
-                    {
-                        if(neigh_neigh.get_associated_region_index() != this.region_id)
-                        {
-                            on_margin_flag = true;
-                        }
-                    }
-
-                    if(!on_margin_flag)
-                    {
-                        areas_on_margin.remove(neigh);
-                    }
-                }
-
-                if(!areas_on_margin.contains(neigh))
-                {
-                    boolean on_margin_flag = false;
-                    for(Area neigh_neigh : neigh.get_neigh_area(all_areas))
-                    {
-                        if (neigh_neigh.get_associated_region_index() != this.region_id) {
-                            on_margin_flag = true;
-                            break;
-                        }
-                    }
-                    if(on_margin_flag)
-                    {
-                        areas_on_margin.add(neigh);
-                    }
+                    areas_on_margin.remove(graph.get_area(neigh_index));
                 }
             }
+            else if(connection_num == 1)
+            {
+                neigh_areas.add(graph.get_area(neigh_index));
+            }
         }
 
-
+        if(compute_connection_num(area) < graph.degree(area.get_geo_index()))
+        {
+            areas_on_margin.add(area);
+        }
     }
 
+    /**
+     * This method removes an area from the region, see add_area_to_region
+     * @param area the area to remove
+     */
     public void remove_area_in_region(Area area)
     {
-        area.set_region(-1);
+        partition.unassign(area);
         areas_in_region.remove(area);
-        neigh_areas.add(area);
-
-
-        for(Area g1 : area.get_neigh_area(all_areas))
-        {
-
-            if(neigh_areas.contains(g1))
-            {
-                boolean flag = false;
-                for(Area g2 : g1.get_neigh_area(all_areas))
-                {
-                    if (areas_in_region.contains(g2)) {
-                        flag = true;
-                        break;
-                    }
-                }
-
-                if(!flag)
-                {
-                    neigh_areas.remove(g1);
-                }
-            }
-        }
-
-
-
-
+        areas_on_margin.remove(area);
 
         region_extensive_attr -= area.get_extensive_attr();
         if(region_extensive_attr < threshold)
         {
             this.region_complete = false;
         }
+        sim_tree.remove(area.get_internal_attr());
         long decre = compute_hetero_decre(area);
         region_heterogeneity -= decre;
 
-
-
-        areas_on_margin.remove(area);
-        for(Area neigh : area.get_neigh_area(all_areas))
+        for(int k = graph.begin(area.get_geo_index()) ; k < graph.end(area.get_geo_index()) ; k++)
         {
-            if(neigh.get_associated_region_index() == this.region_id)
+            int neigh_index = graph.neighbor(k);
+            int connection_num = connection.get(neigh_index , 0) - 1;
+            if(connection_num == 0)
             {
-                if(areas_on_margin.contains(neigh))
-                {
-                    boolean on_margin_flag = false;
-                    for(Area neigh_neigh : neigh.get_neigh_area(all_areas))
-                    {
-                        if (neigh_neigh.get_associated_region_index() != this.region_id) {
-                            on_margin_flag = true;
-                            break;
-                        }
-                    }
-
-                    if(!on_margin_flag)
-                    {
-                        areas_on_margin.remove(neigh);
-                    }
-                }
-
-                if(!areas_on_margin.contains(neigh))
-                {
-                    boolean on_margin_flag = false;
-                    for(Area neigh_neigh : neigh.get_neigh_area(all_areas))
-                    {
-                        if (neigh_neigh.get_associated_region_index() != this.region_id) {
-                            on_margin_flag = true;
-                            break;
-                        }
-                    }
-                    if(on_margin_flag)
-                    {
-                        areas_on_margin.add(neigh);
-                    }
-                }
+                connection.remove(neigh_index , 0);
+            }
+            else
+            {
+                connection.put(neigh_index , connection_num);
+            }
+            if(partition.get_region(neigh_index) == this.region_id)
+            {
+                //the area just removed is a neighbor outside the region
+                areas_on_margin.add(graph.get_area(neigh_index));
+            }
+            else if(connection_num == 0)
+            {
+                neigh_areas.remove(graph.get_area(neigh_index));
             }
         }
 
-
+        if(compute_connection_num(area) > 0)
+        {
+            neigh_areas.add(area);
+        }
     }
 
+    /**
+     * This method computes the heterogeneity increase of adding an area in O(log n), see AttributeTree
+     * @param area the area to add
+     * @return the sum of the absolute differences between the area and the areas in the region
+     */
     public long compute_hetero_incre(Area area)
     {
-        long hetero_incre = 0;
-        for (Area current_area : areas_in_region) {
-            hetero_incre += Math.abs(area.get_internal_attr() - current_area.get_internal_attr());
-        }
-        return hetero_incre;
+        return sim_tree.sum_abs_diff(area.get_internal_attr());
     }
 
+    /**
+     * @param g an area
+     * @return the number of neighbors of g in the region, in O(1)
+     */
     public int compute_connection_num(Area g)
     {
-        int connection = 0;
-        for(Area area : g.get_neigh_area(all_areas))
-        {
-            if(areas_in_region.contains(area))
-            {
-                connection++;
-            }
-        }
-        return connection;
+        return connection.get(g.get_geo_index() , 0);
     }
 
 
+    /**
+     * This method computes the heterogeneity decrease of removing an area in O(log n), the difference between the area and itself is 0
+     * so it does not matter whether the area is still in the region
+     * @param area the area to remove
+     * @return the sum of the absolute differences between the area and the other areas in the region
+     */
     public long compute_hetero_decre(Area area)
     {
-        long hetero_decre = 0;
-        for(Area current_area : areas_in_region){
-            if(current_area == area)
-            {
-                continue;
-            }
-            hetero_decre += Math.abs(area.get_internal_attr() - current_area.get_internal_attr());
-        }
-
-        return hetero_decre;
+        return sim_tree.sum_abs_diff(area.get_internal_attr());
     }
 
+    /**
+     * @return whether the areas of the region are connected, checked by an iterative traversal in O(size of the region + its edges)
+     */
     public boolean is_connected() {
-        boolean[] visited = new boolean[areas_in_region.size()];
-        Area first_area_move = areas_in_region.get(0);
-        DFS(first_area_move , visited , areas_in_region);
-        for(boolean b : visited)
-        {
-            if(!b)
-            {
-                return false;
-            }
-        }
-        return true;
+        return count_reachable(areas_in_region.get(0) , -1) == areas_in_region.size();
     }
 
 
+    /**
+     * @param area an area of the region
+     * @return whether removing the area from the region would disconnect the region
+     */
     public boolean area_disconect_region(Area area)
     {
-        ArrayList<Area> areas_in_region_copy = (ArrayList<Area>) areas_in_region.clone();
-        areas_in_region_copy.remove(area);
-        boolean[] visited = new boolean[areas_in_region_copy.size()];
-        Area first_area_to_move = areas_in_region_copy.get(0);
-        DFS(first_area_to_move , visited , areas_in_region_copy);
-        for(boolean b : visited)
+        if(areas_in_region.size() <= 1)
         {
-            if(!b)
-            {
-                return true;
-            }
+            return false;
         }
-        return false;
+        if(!areas_in_region.contains(area))
+        {
+            return !is_connected();
+        }
+        Area start = areas_in_region.get(0) == area ? areas_in_region.get(1) : areas_in_region.get(0);
+        return count_reachable(start , area.get_geo_index()) != areas_in_region.size() - 1;
     }
 
-
-
-    public void DFS(Area visiting_area , boolean[] visited , ArrayList<Area> areas)
+    /**
+     * This method traverses the region from an area without recursion and without allocating, the visited areas are stamped in the partition
+     * @param start the area to start from
+     * @param excluded the geo index of an area of the region that is skipped, -1 if none
+     * @return the number of areas of the region reached from start without passing through the excluded area
+     */
+    private int count_reachable(Area start , int excluded)
     {
-        visited[areas.indexOf(visiting_area)] = true;
-        for(Area neigh_area : visiting_area.get_neigh_area(all_areas))
+        int[] stack = partition.begin_traversal();
+        if(excluded != -1)
+        {
+            partition.visit(excluded);
+        }
+        partition.visit(start.get_geo_index());
+        int top = 0;
+        stack[top++] = start.get_geo_index();
+        int count = 1;
+        while(top > 0)
         {
-            if(areas.contains(neigh_area))
+            int i = stack[--top];
+            for(int k = graph.begin(i) ; k < graph.end(i) ; k++)
             {
-                if(!visited[areas.indexOf(neigh_area)])
+                int j = graph.neighbor(k);
+                if(partition.get_region(j) == region_id && partition.visit(j))
                 {
-                    DFS(neigh_area , visited , areas);
+                    stack[top++] = j;
+                    count++;
                 }
             }
         }
+        return count;
     }
 
 
 
 
 
-    public ArrayList<Area> getAreas_on_margin()
+    public AreaSet getAreas_on_margin()
     {
         return areas_on_margin;
     }
@@ -369,12 +308,22 @@ public class Region {
         return region_complete;
     }
 
-    public ArrayList<Area> get_neigh_areas()
+    public AreaSet get_neigh_areas()
     {
         return neigh_areas;
     }
 
-    public ArrayList<Area> get_areas_in_region() {return areas_in_region; }
+    public AreaSet get_areas_in_region() {return areas_in_region; }
+
+    /**
+     * @return the graph of all the areas, null if the region was built from a list of areas
+     */
+    public AreaGraph get_graph() { return graph; }
+
+    /**
+     * @return the assignment of the areas shared by the regions of the solution, null if the region was built from a list of areas
+     */
+    public Partition get_partition() { return partition; }
 
     public long get_region_extensive_attr()
     {
@@ -387,6 +336,21 @@ public class Region {
     }
 
 
+    /**
+     * This method computes the heterogeneity of a set of areas from scratch in O(n log n), see AttributeTree.sum_pairwise_abs_diff
+     * @param areas the areas
+     * @return the sum of the absolute differences of the similarity attributes over all the pairs of areas
+     */
+    public static long compute_hetero(List<Area> areas)
+    {
+        long[] sims = new long[areas.size()];
+        for(int i = 0 ; i < sims.length ; i++)
+        {
+            sims[i] = areas.get(i).get_internal_attr();
+        }
+        return AttributeTree.sum_pairwise_abs_diff(sims);
+    }
+
     public static long get_all_region_hetero(Region[] regions)
     {
         long total_hetero = 0;
@@ -409,28 +373,46 @@ public class Region {
         return false;
     }
 
-    public static Region[] construct_region_from_areas(ArrayList<Area> all_areas , Seed seed , long threshold)
+    /**
+     * This method rebuilds the regions of a solution from its assignment vector, e.g. a snapshot taken by Partition.snapshot
+     * @param partition the partition to rebuild the regions on, its current assignment is replaced
+     * @param assignment the region of every area
+     * @param threshold the value on the user-defined constraint
+     * @return the regions, the i-th region is the region whose index is i
+     */
+    public static Region[] construct_region_from_assignment(Partition partition , int[] assignment , long threshold)
     {
-        Region[] regions = new Region[seed.get_seeds().size()];
-        for(int i = 0 ; i < regions.length ; i++)
-        {
-            int g_index = seed.get_seeds().get(i).get_geo_index();
-            Area g = all_areas.get(g_index);
-            regions[i] = new Region(i , g , threshold , all_areas);
-        }
+        int[] unassigned = new int[assignment.length];
+        Arrays.fill(unassigned , -1);
+        partition.restore(unassigned);
 
-
-        for(Area g : all_areas)
+        Region[] regions = new Region[partition.get_region_num()];
+        AreaGraph graph = partition.get_graph();
+        for(int i = 0 ; i < assignment.length ; i++)
         {
-            int r_id = g.get_associated_region_index();
-            Region r = regions[r_id];
-            if(r.get_areas_in_region().contains(g))
+            int r_id = assignment[i];
+            if(r_id == -1)
             {
                 continue;
             }
-            r.add_area_to_region(g);
+            Area g = graph.get_area(i);
+            if(regions[r_id] == null)
+            {
+                regions[r_id] = new Region(r_id , g , threshold , partition);
+            }
+            else
+            {
+                regions[r_id].add_area_to_region(g);
+            }
         }
 
+        for(int r_id = 0 ; r_id < regions.length ; r_id++)
+        {
+            if(regions[r_id] == null)
+            {
+                throw new IllegalArgumentException("no area is assigned to the region " + r_id);
+            }
+        }
         return regions;
     }
 
@@ -455,7 +437,7 @@ public class Region {
         for(Region r : regions)
         {
             long r_ex = 0L;
-            ArrayList<Area> areas_in_r = r.get_areas_in_region();
+            AreaSet areas_in_r = r.get_areas_in_region();
             for(Area area : areas_in_r)
             {
                 r_ex += area.get_extensive_attr();
@@ -477,16 +459,7 @@ public class Region {
                 System.out.println("smaller than threshold");
             }
 
-            long r_hetero = 0;
-            for(int i = 0 ; i < r.get_areas_in_region().size() ; i++)
-            {
-                for(int j = i + 1 ; j < r.get_areas_in_region().size() ; j++)
-                {
-                    Area a1 = r.get_areas_in_region().get(i);
-                    Area a2 = r.get_areas_in_region().get(j);
-                    r_hetero += Math.abs(a1.get_internal_attr() - a2.get_internal_attr());
-                }
-            }
+            long r_hetero = compute_hetero(r.get_areas_in_region());
 
             if(r_hetero != r.get_region_hetero())
             {
@@ -0,0 +1,189 @@
+package util;
+
+import java.util.ArrayList;
+
+/**
+ * This class holds the adjacency between the regions of a partition. For every region r and every neighboring region s it keeps the number of edges
+ * between r and s, and the set of the areas of s that have a neighbor in r together with the number of such neighbors of every area.
+ * The partition updates it in O(degree) whenever an area is assigned or unassigned (see Partition.get_adjacency),
+ * so the neighboring regions, the shared edges and the areas on the border of two regions are read in O(1) instead of being rebuilt after every move
+ */
+public class RegionAdjacency {
+
+    private final Partition partition;
+    private final AreaGraph graph;
+    //borders.get(r) lists the neighboring regions of r, index[r] maps a neighboring region to its position in borders.get(r)
+    private final ArrayList<ArrayList<Border>> borders;
+    private final IntIntMap[] index;
+
+    /**
+     * This class holds the border of a region with one of its neighboring regions
+     */
+    private static class Border {
+        private final int region;
+        private int edges;
+        private final AreaSet areas = new AreaSet();
+        private final IntIntMap links = new IntIntMap();
+
+        private Border(int region)
+        {
+            this.region = region;
+        }
+    }
+
+    /**
+     * This method builds the adjacency of the current assignment of the partition in O(number of edges)
+     * @param partition the partition
+     */
+    RegionAdjacency(Partition partition)
+    {
+        this.partition = partition;
+        this.graph = partition.get_graph();
+        int p = partition.get_region_num();
+        borders = new ArrayList<>(p);
+        index = new IntIntMap[p];
+        for(int r = 0 ; r < p ; r++)
+        {
+            borders.add(new ArrayList<>());
+            index[r] = new IntIntMap();
+        }
+        //every edge between two regions is met once from each side, and each side adds the other endpoint to its border
+        for(int i = 0 ; i < graph.size() ; i++)
+        {
+            int r = partition.get_region(i);
+            if(r == -1)
+            {
+                continue;
+            }
+            for(int k = graph.begin(i) ; k < graph.end(i) ; k++)
+            {
+                int j = graph.neighbor(k);
+                int s = partition.get_region(j);
+                if(s != -1 && s != r)
+                {
+                    link(r , s , graph.get_area(j) , 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method adds the edges of an area that has just been assigned to a region
+     * @param i the geo index of the area
+     * @param region the region of the area
+     */
+    void add_area(int i , int region)
+    {
+        update(i , region , 1);
+    }
+
+    /**
+     * This method removes the edges of an area that has just been removed from a region
+     * @param i the geo index of the area
+     * @param region the region the area belonged to
+     */
+    void remove_area(int i , int region)
+    {
+        update(i , region , -1);
+    }
+
+    private void update(int i , int region , int delta)
+    {
+        Area area = graph.get_area(i);
+        for(int k = graph.begin(i) ; k < graph.end(i) ; k++)
+        {
+            int j = graph.neighbor(k);
+            int s = partition.get_region(j);
+            if(s == -1 || s == region)
+            {
+                continue;
+            }
+            link(region , s , graph.get_area(j) , delta);
+            link(s , region , area , delta);
+        }
+    }
+
+    /**
+     * This method adds or removes one edge between the region r and the area of the region s
+     * @param r the region on one side of the edge
+     * @param s the region of the area
+     * @param area the area on the other side of the edge
+     * @param delta 1 to add the edge, -1 to remove it
+     */
+    private void link(int r , int s , Area area , int delta)
+    {
+        int position = index[r].get(s , -1);
+        Border border;
+        if(position == -1)
+        {
+            position = borders.get(r).size();
+            border = new Border(s);
+            borders.get(r).add(border);
+            index[r].put(s , position);
+        }
+        else
+        {
+            border = borders.get(r).get(position);
+        }
+
+        border.edges += delta;
+        int geo_index = area.get_geo_index();
+        int links = border.links.get(geo_index , 0) + delta;
+        if(links == 0)
+        {
+            border.links.remove(geo_index , 0);
+            border.areas.remove(area);
+        }
+        else
+        {
+            border.links.put(geo_index , links);
+            border.areas.add(area);
+        }
+
+        //the two regions are no longer neighbors, the last border takes the position of the removed one
+        if(border.edges == 0)
+        {
+            Border last = borders.get(r).remove(borders.get(r).size() - 1);
+            if(last != border)
+            {
+                borders.get(r).set(position , last);
+                index[r].put(last.region , position);
+            }
+            index[r].remove(s , -1);
+        }
+    }
+
+    /**
+     * @return the number of regions that share an edge with the region
+     */
+    public int get_neighbor_num(int region) { return borders.get(region).size(); }
+
+    /**
+     * @param region the region
+     * @param k the position of the neighboring region, between 0 and get_neighbor_num(region) - 1
+     * @return the index of the k-th neighboring region, the order changes when two regions stop being neighbors
+     */
+    public int get_neighbor(int region , int k) { return borders.get(region).get(k).region; }
+
+    public boolean is_adjacent(int r , int s) { return index[r].contains_key(s); }
+
+    /**
+     * @return the number of edges between an area of r and an area of s
+     */
+    public int get_shared_edges(int r , int s)
+    {
+        int position = index[r].get(s , -1);
+        return position == -1 ? 0 : borders.get(r).get(position).edges;
+    }
+
+    /**
+     * @param r the region
+     * @param s the neighboring region
+     * @return the areas of s that have a neighbor in r, the set is updated by the following moves so it must be copied before moving areas
+     */
+    public AreaSet get_border_areas(int r , int s)
+    {
+        int position = index[r].get(s , -1);
+        return position == -1 ? new AreaSet(1) : borders.get(r).get(position).areas;
+    }
+}
@@ -0,0 +1,275 @@
+package util;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * This class finds the neighboring areas by hashing the boundary vertices of their polygons rounded to a grid.
+ * Every distinct rounded vertex gets an id in an open addressing table, and either the vertices (queen) or the segments given by two consecutive vertex ids (rook)
+ * are keyed to the chain of areas whose boundary contains them, so two areas sharing a key become neighbors.
+ * The polygons are added one at a time and only their vertices are kept, so the geometries can be dropped while the shapefile is streamed.
+ * Two polygons that touch without sharing a vertex, e.g. a vertex lying in the middle of a segment of the other polygon, are not detected
+ */
+public class SharedBoundaryIndex {
+
+    private boolean edges;
+    private double precision;
+
+    //the rounded coordinates of the distinct vertices and the open addressing table from a vertex to its id + 1
+    private long[] vertex_x = new long[1024];
+    private long[] vertex_y = new long[1024];
+    private int vertex_num;
+    private int[] vertex_table = new int[2048];
+
+    //the chain of areas of each key, the key is a vertex id for the queen criterion and a pair of vertex ids for the rook criterion
+    private int[] vertex_heads = new int[1024];
+    private long[] edge_keys = new long[2048];
+    private int[] edge_heads = new int[2048];
+    private int edge_num;
+    private int[] record_area = new int[1024];
+    private int[] record_next = new int[1024];
+    private int record_num;
+
+    //the neighboring pairs as (i << 32 | j) with i < j
+    private long[] pairs = new long[1024];
+    private int pair_num;
+
+    /**
+     *
+     * @param mode SHARED_EDGE or SHARED_VERTEX
+     * @param precision the number of grid cells per unit of the coordinates, the vertices falling into the same cell are the same vertex
+     */
+    public SharedBoundaryIndex(Contiguity mode , double precision)
+    {
+        if(!mode.is_hashed())
+        {
+            throw new IllegalArgumentException("the contiguity " + mode + " is not evaluated by hashing");
+        }
+        this.edges = mode == Contiguity.SHARED_EDGE;
+        this.precision = precision;
+        Arrays.fill(vertex_heads , -1);
+        Arrays.fill(edge_heads , -1);
+    }
+
+    /**
+     * This method adds the boundary of an area, the areas can be added in any order
+     * @param area the index of the area
+     * @param polygon the polygon or multipolygon of the area
+     */
+    public void add(int area , Geometry polygon)
+    {
+        for(int i = 0 ; i < polygon.getNumGeometries() ; i++)
+        {
+            Geometry part = polygon.getGeometryN(i);
+            if(part instanceof Polygon)
+            {
+                Polygon p = (Polygon) part;
+                add_ring(area , p.getExteriorRing());
+                for(int k = 0 ; k < p.getNumInteriorRing() ; k++)
+                {
+                    add_ring(area , p.getInteriorRingN(k));
+                }
+            }
+            else if(part instanceof LineString)
+            {
+                add_ring(area , (LineString) part);
+            }
+        }
+    }
+
+    private void add_ring(int area , LineString ring)
+    {
+        CoordinateSequence sequence = ring.getCoordinateSequence();
+        int size = sequence.size();
+        int previous = -1;
+        for(int k = 0 ; k < size ; k++)
+        {
+            int vertex = vertex_id(Math.round(sequence.getX(k) * precision) , Math.round(sequence.getY(k) * precision));
+            if(!edges)
+            {
+                visit_vertex(area , vertex);
+            }
+            else if(previous != -1 && previous != vertex)
+            {
+                visit_edge(area , Math.min(previous , vertex) , Math.max(previous , vertex));
+            }
+            previous = vertex;
+        }
+    }
+
+    /**
+     * This method adds the neighboring relations found so far to the areas, the neighbor lists are in ascending order
+     * @param areas the areas, the i-th area corresponds to the area index i given to add
+     */
+    public void set_neighbors(ArrayList<Area> areas)
+    {
+        long[] sorted = Arrays.copyOf(pairs , pair_num);
+        Arrays.sort(sorted);
+        Preprocess.NeighborBuffer buffer = new Preprocess.NeighborBuffer();
+        for(int k = 0 ; k < sorted.length ; k++)
+        {
+            if(k > 0 && sorted[k] == sorted[k - 1])
+            {
+                continue;
+            }
+            buffer.add((int)(sorted[k] >>> 32) , (int) sorted[k]);
+        }
+        Preprocess.set_neighbors(areas , Collections.singletonList(buffer));
+    }
+
+    private int vertex_id(long x , long y)
+    {
+        int mask = vertex_table.length - 1;
+        int slot = hash(x * 0x9E3779B97F4A7C15L ^ y * 0xC2B2AE3D27D4EB4FL) & mask;
+        while(vertex_table[slot] != 0)
+        {
+            int id = vertex_table[slot] - 1;
+            if(vertex_x[id] == x && vertex_y[id] == y)
+            {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if(vertex_num == vertex_x.length)
+        {
+            vertex_x = Arrays.copyOf(vertex_x , vertex_num * 2);
+            vertex_y = Arrays.copyOf(vertex_y , vertex_num * 2);
+            int old_length = vertex_heads.length;
+            vertex_heads = Arrays.copyOf(vertex_heads , vertex_num * 2);
+            Arrays.fill(vertex_heads , old_length , vertex_heads.length , -1);
+        }
+        int id = vertex_num++;
+        vertex_x[id] = x;
+        vertex_y[id] = y;
+        vertex_table[slot] = id + 1;
+        if(vertex_num * 2 > vertex_table.length)
+        {
+            rehash_vertices();
+        }
+        return id;
+    }
+
+    private void rehash_vertices()
+    {
+        vertex_table = new int[vertex_table.length * 2];
+        int mask = vertex_table.length - 1;
+        for(int id = 0 ; id < vertex_num ; id++)
+        {
+            int slot = hash(vertex_x[id] * 0x9E3779B97F4A7C15L ^ vertex_y[id] * 0xC2B2AE3D27D4EB4FL) & mask;
+            while(vertex_table[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            vertex_table[slot] = id + 1;
+        }
+    }
+
+    private void visit_vertex(int area , int vertex)
+    {
+        int head = vertex_heads[vertex];
+        int record = visit(area , head);
+        if(record != -1)
+        {
+            vertex_heads[vertex] = record;
+        }
+    }
+
+    private void visit_edge(int area , int a , int b)
+    {
+        long key = ((long) a << 32) | b;
+        int mask = edge_keys.length - 1;
+        int slot = hash(key * 0x9E3779B97F4A7C15L) & mask;
+        while(edge_heads[slot] != -1 && edge_keys[slot] != key)
+        {
+            slot = (slot + 1) & mask;
+        }
+        if(edge_heads[slot] == -1)
+        {
+            edge_keys[slot] = key;
+            edge_num++;
+        }
+        int record = visit(area , edge_heads[slot]);
+        if(record != -1)
+        {
+            edge_heads[slot] = record;
+        }
+        if(edge_num * 2 > edge_keys.length)
+        {
+            rehash_edges();
+        }
+    }
+
+    private void rehash_edges()
+    {
+        long[] old_keys = edge_keys;
+        int[] old_heads = edge_heads;
+        edge_keys = new long[old_keys.length * 2];
+        edge_heads = new int[old_heads.length * 2];
+        Arrays.fill(edge_heads , -1);
+        int mask = edge_keys.length - 1;
+        for(int k = 0 ; k < old_keys.length ; k++)
+        {
+            if(old_heads[k] == -1)
+            {
+                continue;
+            }
+            int slot = hash(old_keys[k] * 0x9E3779B97F4A7C15L) & mask;
+            while(edge_heads[slot] != -1)
+            {
+                slot = (slot + 1) & mask;
+            }
+            edge_keys[slot] = old_keys[k];
+            edge_heads[slot] = old_heads[k];
+        }
+    }
+
+    /**
+     * This method pairs the area with every other area in the chain and prepends the area to the chain
+     * @return the new head of the chain, or -1 if the area is already in the chain
+     */
+    private int visit(int area , int head)
+    {
+        for(int record = head ; record != -1 ; record = record_next[record])
+        {
+            if(record_area[record] == area)
+            {
+                return -1;
+            }
+        }
+        for(int record = head ; record != -1 ; record = record_next[record])
+        {
+            int other = record_area[record];
+            add_pair(Math.min(area , other) , Math.max(area , other));
+        }
+
+        if(record_num == record_area.length)
+        {
+            record_area = Arrays.copyOf(record_area , record_num * 2);
+            record_next = Arrays.copyOf(record_next , record_num * 2);
+        }
+        record_area[record_num] = area;
+        record_next[record_num] = head;
+        return record_num++;
+    }
+
+    private void add_pair(int i , int j)
+    {
+        if(pair_num == pairs.length)
+        {
+            pairs = Arrays.copyOf(pairs , pair_num * 2);
+        }
+        pairs[pair_num++] = ((long) i << 32) | j;
+    }
+
+    private static int hash(long h)
+    {
+        return (int)(h ^ (h >>> 32));
+    }
+}
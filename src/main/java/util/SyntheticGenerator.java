@@ -0,0 +1,352 @@
+package util;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.triangulate.DelaunayTriangulationBuilder;
+import org.locationtech.jts.triangulate.quadedge.QuadEdge;
+import org.locationtech.jts.triangulate.quadedge.QuadEdgeSubdivision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * This class generates synthetic datasets directly as areas with their neighboring relations, so the algorithms can be run on instances much larger
+ * than the shapefiles without any geometry I/O. The areas are laid out on a square grid, a hexagonal grid, or a random planar graph given by the
+ * Delaunay triangulation of random points (i.e. the adjacency of their Voronoi cells). The areas can be split into several islands with no neighbor
+ * across them, and the similarity attribute is drawn from a uniform, a log-normal or a spatially clustered distribution.
+ * The same seed and parameters always generate the same dataset.
+ * A synthetic dataset can also be loaded by name through Preprocess.GeoSetBuilder with the spec
+ * <pre>
+ *   synthetic:&lt;grid|hex|voronoi&gt;:&lt;number of areas&gt;[:islands=k][:seed=s][:sim=uniform|lognormal|clustered][:clusters=c][:ext=uniform|lognormal|same]
+ * </pre>
+ * e.g. synthetic:hex:250000:islands=4:sim=clustered
+ */
+public class SyntheticGenerator {
+
+    public static final String PREFIX = "synthetic:";
+
+    public enum Lattice { GRID , HEX , VORONOI }
+
+    public enum Distribution { UNIFORM , LOGNORMAL , CLUSTERED , SAME }
+
+    private Lattice lattice = Lattice.GRID;
+    private int island_num = 1;
+    private long seed = 0;
+    private Distribution sim_distribution = Distribution.LOGNORMAL;
+    private Distribution ext_distribution = Distribution.LOGNORMAL;
+    private int cluster_num = 16;
+
+    //the gap between two islands, in units of the spacing between two areas
+    private static final double ISLAND_GAP = 4;
+
+    public SyntheticGenerator(Lattice lattice , long seed)
+    {
+        this.lattice = lattice;
+        this.seed = seed;
+    }
+
+    /**
+     * This method parses a spec of the form synthetic:lattice:n[:key=value]*
+     * @param spec the spec of the dataset
+     * @return the generated areas
+     */
+    public static ArrayList<Area> generate(String spec)
+    {
+        String[] parts = spec.substring(PREFIX.length()).split(":");
+        if(parts.length < 2)
+        {
+            throw new IllegalArgumentException("the synthetic dataset " + spec + " needs a lattice and a number of areas");
+        }
+        SyntheticGenerator generator = new SyntheticGenerator(Lattice.valueOf(parts[0].trim().toUpperCase()) , 0);
+        int n = Integer.parseInt(parts[1].trim());
+        for(int i = 2 ; i < parts.length ; i++)
+        {
+            String[] option = parts[i].split("=" , 2);
+            if(option.length != 2)
+            {
+                throw new IllegalArgumentException("the option " + parts[i] + " of the synthetic dataset " + spec + " is not of the form key=value");
+            }
+            String value = option[1].trim();
+            switch (option[0].trim()) {
+                case "islands":
+                    generator.set_island_num(Integer.parseInt(value));
+                    break;
+                case "seed":
+                    generator.set_seed(Long.parseLong(value));
+                    break;
+                case "sim":
+                    generator.set_sim_distribution(Distribution.valueOf(value.toUpperCase()));
+                    break;
+                case "ext":
+                    generator.set_ext_distribution(Distribution.valueOf(value.toUpperCase()));
+                    break;
+                case "clusters":
+                    generator.set_cluster_num(Integer.parseInt(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option[0] + " of the synthetic dataset " + spec);
+            }
+        }
+        return generator.generate(n);
+    }
+
+    /**
+     *
+     * @param n the number of areas
+     * @return the areas with their centroids, attributes, neighboring relations and connected components, the neighbor lists are in ascending order
+     */
+    public ArrayList<Area> generate(int n)
+    {
+        if(n < island_num)
+        {
+            throw new IllegalArgumentException("cannot split " + n + " areas into " + island_num + " islands");
+        }
+        Random rand = new Random(seed);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        EdgeList edges = new EdgeList();
+
+        //every island is an independent lattice, shifted to the right of the previous one
+        int start = 0;
+        double offset = 0;
+        for(int island = 0 ; island < island_num ; island++)
+        {
+            int size = n / island_num + (island < n % island_num ? 1 : 0);
+            double width;
+            switch (lattice) {
+                case HEX:
+                    width = hex(start , size , x , y , edges);
+                    break;
+                case VORONOI:
+                    width = voronoi(start , size , x , y , edges , rand);
+                    break;
+                default:
+                    width = grid(start , size , x , y , edges);
+            }
+            for(int i = start ; i < start + size ; i++)
+            {
+                x[i] += offset;
+            }
+            offset += width + ISLAND_GAP;
+            start += size;
+        }
+
+        long[] sim = draw(sim_distribution , x , y , rand , null);
+        long[] ext = draw(ext_distribution , x , y , rand , sim);
+        ArrayList<Area> areas = new ArrayList<>(n);
+        for(int i = 0 ; i < n ; i++)
+        {
+            Area area = new Area(i , sim[i] , ext[i] , null);
+            area.set_centroid(new Coordinate(x[i] , y[i]));
+            areas.add(area);
+        }
+        WeightsFile.set_undirected_neighbors(areas , edges.from , edges.to , edges.size);
+        ConnectedComponents.label(areas);
+        return areas;
+    }
+
+    /**
+     * The areas are unit squares filled row by row, every area is a neighbor of the areas on its left, right, top and bottom
+     * @return the width of the lattice
+     */
+    private static double grid(int start , int size , double[] x , double[] y , EdgeList edges)
+    {
+        int cols = (int)Math.ceil(Math.sqrt(size));
+        for(int k = 0 ; k < size ; k++)
+        {
+            int row = k / cols;
+            int col = k % cols;
+            x[start + k] = col;
+            y[start + k] = row;
+            if(col > 0)
+            {
+                edges.add(start + k - 1 , start + k);
+            }
+            if(row > 0)
+            {
+                edges.add(start + k - cols , start + k);
+            }
+        }
+        return cols;
+    }
+
+    /**
+     * The areas are hexagons filled row by row, the odd rows are shifted by half a hexagon so every inner area has six neighbors
+     * @return the width of the lattice
+     */
+    private static double hex(int start , int size , double[] x , double[] y , EdgeList edges)
+    {
+        int cols = (int)Math.ceil(Math.sqrt(size));
+        for(int k = 0 ; k < size ; k++)
+        {
+            int row = k / cols;
+            int col = k % cols;
+            x[start + k] = col + (row % 2 == 1 ? 0.5 : 0);
+            y[start + k] = row * Math.sqrt(3) / 2;
+            if(col > 0)
+            {
+                edges.add(start + k - 1 , start + k);
+            }
+            if(row > 0)
+            {
+                //the row above is shifted left of this row if this row is odd, and right of it if this row is even
+                int above = k - cols;
+                edges.add(start + above , start + k);
+                int diagonal = row % 2 == 1 ? col + 1 : col - 1;
+                if(diagonal >= 0 && diagonal < cols)
+                {
+                    edges.add(start + above - col + diagonal , start + k);
+                }
+            }
+        }
+        return cols + 0.5;
+    }
+
+    /**
+     * The areas are the Voronoi cells of random points in a square of side sqrt(size), so the density matches the other lattices,
+     * and two areas are neighbors if their points are connected in the Delaunay triangulation
+     * @return the width of the square
+     */
+    private static double voronoi(int start , int size , double[] x , double[] y , EdgeList edges , Random rand)
+    {
+        double side = Math.sqrt(size);
+        Map<Coordinate, Integer> index_of = new HashMap<>(size * 2);
+        List<Coordinate> sites = new ArrayList<>(size);
+        for(int k = 0 ; k < size ; k++)
+        {
+            Coordinate site = new Coordinate(rand.nextDouble() * side , rand.nextDouble() * side);
+            while(index_of.containsKey(site))
+            {
+                site = new Coordinate(rand.nextDouble() * side , rand.nextDouble() * side);
+            }
+            index_of.put(site , start + k);
+            sites.add(site);
+            x[start + k] = site.x;
+            y[start + k] = site.y;
+        }
+        if(size == 1)
+        {
+            return side;
+        }
+
+        DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+        builder.setSites(sites);
+        QuadEdgeSubdivision subdivision = builder.getSubdivision();
+        for(Object e : subdivision.getPrimaryEdges(false))
+        {
+            QuadEdge edge = (QuadEdge) e;
+            Integer i = index_of.get(edge.orig().getCoordinate());
+            Integer j = index_of.get(edge.dest().getCoordinate());
+            if(i != null && j != null)
+            {
+                edges.add(i , j);
+            }
+        }
+        return side;
+    }
+
+    /**
+     * @param distribution the distribution of the attribute
+     * @param x the x coordinate of the centroids
+     * @param y the y coordinate of the centroids
+     * @param rand the random generator
+     * @param same the attribute returned for the SAME distribution
+     * @return the attribute of every area, at least 1
+     */
+    private long[] draw(Distribution distribution , double[] x , double[] y , Random rand , long[] same)
+    {
+        int n = x.length;
+        long[] values = new long[n];
+        switch (distribution) {
+            case SAME:
+                if(same == null)
+                {
+                    throw new IllegalArgumentException("the similarity attribute cannot be the same as itself");
+                }
+                return same.clone();
+            case UNIFORM:
+                for(int i = 0 ; i < n ; i++)
+                {
+                    values[i] = 1 + rand.nextInt(1000);
+                }
+                return values;
+            case CLUSTERED:
+                //every area takes the level of its nearest cluster center, with a small log-normal noise
+                double min_x = Double.MAX_VALUE, max_x = -Double.MAX_VALUE, min_y = Double.MAX_VALUE, max_y = -Double.MAX_VALUE;
+                for(int i = 0 ; i < n ; i++)
+                {
+                    min_x = Math.min(min_x , x[i]);
+                    max_x = Math.max(max_x , x[i]);
+                    min_y = Math.min(min_y , y[i]);
+                    max_y = Math.max(max_y , y[i]);
+                }
+                double[] center_x = new double[cluster_num];
+                double[] center_y = new double[cluster_num];
+                double[] level = new double[cluster_num];
+                for(int c = 0 ; c < cluster_num ; c++)
+                {
+                    center_x[c] = min_x + rand.nextDouble() * (max_x - min_x);
+                    center_y[c] = min_y + rand.nextDouble() * (max_y - min_y);
+                    level[c] = 100 + rand.nextDouble() * 9900;
+                }
+                for(int i = 0 ; i < n ; i++)
+                {
+                    int nearest = 0;
+                    double nearest_dist = Double.MAX_VALUE;
+                    for(int c = 0 ; c < cluster_num ; c++)
+                    {
+                        double dist = (x[i] - center_x[c]) * (x[i] - center_x[c]) + (y[i] - center_y[c]) * (y[i] - center_y[c]);
+                        if(dist < nearest_dist)
+                        {
+                            nearest_dist = dist;
+                            nearest = c;
+                        }
+                    }
+                    values[i] = Math.max(1 , Math.round(level[nearest] * Math.exp(0.1 * rand.nextGaussian())));
+                }
+                return values;
+            default:
+                //heavy tailed like the land areas and populations of the census units
+                for(int i = 0 ; i < n ; i++)
+                {
+                    values[i] = Math.max(1 , Math.round(Math.exp(8 + rand.nextGaussian())));
+                }
+                return values;
+        }
+    }
+
+    public void set_island_num(int island_num) { this.island_num = island_num; }
+
+    public void set_seed(long seed) { this.seed = seed; }
+
+    public void set_sim_distribution(Distribution sim_distribution) { this.sim_distribution = sim_distribution; }
+
+    public void set_ext_distribution(Distribution ext_distribution) { this.ext_distribution = ext_distribution; }
+
+    public void set_cluster_num(int cluster_num) { this.cluster_num = cluster_num; }
+
+    /**
+     * The growable primitive list of edges
+     */
+    static class EdgeList
+    {
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        int size;
+
+        void add(int i , int j)
+        {
+            if(size == from.length)
+            {
+                from = Arrays.copyOf(from , size * 2);
+                to = Arrays.copyOf(to , size * 2);
+            }
+            from[size] = i;
+            to[size] = j;
+            size++;
+        }
+    }
+}
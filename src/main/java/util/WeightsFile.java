@@ -0,0 +1,429 @@
+package util;
+
+import org.geotools.data.shapefile.dbf.DbaseFileReader;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class reads and writes the GeoDa contiguity files, so a dataset can be loaded from a .gal/.gwt file and an attribute table without any polygon,
+ * and the neighboring relations computed from a shapefile can be exported to .gal.
+ * In a .gal file every area is written as a line "id number_of_neighbors" followed by a line with the ids of its neighbors,
+ * in a .gwt file every line is an edge "id neighbor_id weight", the weights are ignored since only the contiguity is used
+ */
+public class WeightsFile {
+
+    /**
+     * This method builds the areas of a dataset described by a contiguity file and an attribute table.
+     * The neighbor lists are symmetrized and sorted, so the result does not depend on the order of the contiguity file
+     * @param dataset the descriptor of the dataset, which must have a contiguity file
+     * @return the areas of the dataset, the i-th area corresponds to the i-th row of the attribute table
+     */
+    public static ArrayList<Area> load(DatasetDescriptor dataset) throws IOException {
+        Table table = read_table(dataset.get_attributes());
+        int n = table.rows.size();
+        int sim = table.column(dataset.get_sim_column());
+        int ext = table.column(dataset.get_ext_column());
+        //the seed identification compares the distances between the centroids, so they cannot be left out
+        if(dataset.get_x_column() == null || dataset.get_y_column() == null)
+        {
+            throw new IOException("the dataset " + dataset.get_name() + " has no centroid columns, set " + dataset.get_name() + ".x and " + dataset.get_name() + ".y");
+        }
+        int x = table.column(dataset.get_x_column());
+        int y = table.column(dataset.get_y_column());
+
+        ArrayList<Area> areas = new ArrayList<>(n);
+        for(int i = 0 ; i < n ; i++)
+        {
+            Object[] row = table.rows.get(i);
+            Area area = new Area(i , dataset.parse_sim(row[sim]) , dataset.parse_ext(row[ext]) , null);
+            area.set_centroid(new Coordinate(Double.parseDouble(row[x].toString().trim()) , Double.parseDouble(row[y].toString().trim())));
+            areas.add(area);
+        }
+
+        ContiguityFile contiguity = dataset.get_weights().getName().toLowerCase().endsWith(".gwt") ? read_gwt(dataset.get_weights()) : read_gal(dataset.get_weights());
+        if(contiguity.area_num != -1 && contiguity.area_num != n)
+        {
+            throw new IOException("the contiguity file " + dataset.get_weights() + " has " + contiguity.area_num + " areas but the attribute table has " + n + " rows");
+        }
+        ArrayList<String[]> edges = contiguity.edges;
+        Map<String, Integer> index_of = index_ids(dataset , table , contiguity);
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        for(int k = 0 ; k < edges.size() ; k++)
+        {
+            from[k] = resolve(index_of , edges.get(k)[0] , n);
+            to[k] = resolve(index_of , edges.get(k)[1] , n);
+        }
+        set_undirected_neighbors(areas , from , to , edges.size());
+        return areas;
+    }
+
+    /**
+     * This method sets the neighbor lists of the areas from a list of edges, every edge is added in both directions,
+     * the self-loops and the duplicated edges are dropped and every neighbor list is sorted in ascending order
+     * @param areas the areas, whose neighbor lists are replaced
+     * @param from the first end of each edge
+     * @param to the second end of each edge
+     * @param count the number of edges
+     */
+    static void set_undirected_neighbors(ArrayList<Area> areas , int[] from , int[] to , int count)
+    {
+        int n = areas.size();
+        int[] offsets = new int[n + 1];
+        for(int k = 0 ; k < count ; k++)
+        {
+            if(from[k] != to[k])
+            {
+                offsets[from[k] + 1]++;
+                offsets[to[k] + 1]++;
+            }
+        }
+        for(int i = 0 ; i < n ; i++)
+        {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] neighbors = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets , n);
+        for(int k = 0 ; k < count ; k++)
+        {
+            if(from[k] != to[k])
+            {
+                neighbors[fill[from[k]]++] = to[k];
+                neighbors[fill[to[k]]++] = from[k];
+            }
+        }
+
+        for(int i = 0 ; i < n ; i++)
+        {
+            Arrays.sort(neighbors , offsets[i] , offsets[i + 1]);
+            int[] neigh_index = new int[offsets[i + 1] - offsets[i]];
+            int neigh_num = 0;
+            for(int k = offsets[i] ; k < offsets[i + 1] ; k++)
+            {
+                if(k == offsets[i] || neighbors[k] != neighbors[k - 1])
+                {
+                    neigh_index[neigh_num++] = neighbors[k];
+                }
+            }
+            areas.get(i).set_neighbor_once(Arrays.copyOf(neigh_index , neigh_num));
+        }
+    }
+
+    /**
+     * This method exports the neighboring relations of the areas to a .gal file, the ids are the geo indices of the areas
+     * @param areas the areas
+     * @param file the .gal file to write
+     */
+    public static void write_gal(ArrayList<Area> areas , File file) throws IOException {
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(file.toPath() , StandardCharsets.ISO_8859_1))) {
+            pw.println(areas.size());
+            for(Area area : areas)
+            {
+                int[] neigh_index = area.get_neigh_area_index();
+                pw.println(area.get_geo_index() + " " + neigh_index.length);
+                StringBuilder line = new StringBuilder();
+                for(int neigh : neigh_index)
+                {
+                    if(line.length() > 0)
+                    {
+                        line.append(' ');
+                    }
+                    line.append(neigh);
+                }
+                pw.println(line);
+            }
+        }
+    }
+
+    /**
+     * The content of a contiguity file
+     */
+    private static class ContiguityFile {
+        int area_num = -1; //the number of areas in the header, -1 if the header has none
+        ArrayList<String> ids = new ArrayList<>(); //every id of the file, including the areas without neighbors
+        ArrayList<String[]> edges = new ArrayList<>(); //the edges as pairs of ids
+    }
+
+    /**
+     * This method reads the number of areas from the header of a contiguity file, which is either "n" or "0 n shapefile key"
+     * @return the number of areas, -1 if the header has none
+     */
+    private static int read_area_num(String header)
+    {
+        if(header == null)
+        {
+            return -1;
+        }
+        String[] tokens = header.trim().split("\\s+");
+        try {
+            return Integer.parseInt(tokens.length == 1 ? tokens[0] : tokens[1]);
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the areas and the edges of the .gal file
+     */
+    private static ContiguityFile read_gal(File file) throws IOException {
+        ContiguityFile contiguity = new ContiguityFile();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath() , StandardCharsets.ISO_8859_1)) {
+            contiguity.area_num = read_area_num(reader.readLine());
+            String line;
+            while((line = next_line(reader)) != null)
+            {
+                String[] head = line.trim().split("\\s+");
+                int k = Integer.parseInt(head[1]);
+                String[] neigh = k == 0 ? new String[0] : next_line(reader).trim().split("\\s+");
+                if(neigh.length != k)
+                {
+                    throw new IOException("the area " + head[0] + " in " + file + " lists " + neigh.length + " neighbors instead of " + k);
+                }
+                contiguity.ids.add(head[0]);
+                for(String id : neigh)
+                {
+                    contiguity.ids.add(id);
+                    contiguity.edges.add(new String[]{head[0] , id});
+                }
+            }
+        }
+        return contiguity;
+    }
+
+    /**
+     * @return the areas and the edges of the .gwt file, the areas without neighbors do not appear in a .gwt file
+     */
+    private static ContiguityFile read_gwt(File file) throws IOException {
+        ContiguityFile contiguity = new ContiguityFile();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath() , StandardCharsets.ISO_8859_1)) {
+            contiguity.area_num = read_area_num(reader.readLine());
+            String line;
+            while((line = next_line(reader)) != null)
+            {
+                String[] edge = line.trim().split("\\s+");
+                contiguity.ids.add(edge[0]);
+                contiguity.ids.add(edge[1]);
+                contiguity.edges.add(new String[]{edge[0] , edge[1]});
+            }
+        }
+        return contiguity;
+    }
+
+    private static String next_line(BufferedReader reader) throws IOException {
+        String line;
+        while((line = reader.readLine()) != null)
+        {
+            if(!line.trim().isEmpty())
+            {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method maps every id of the contiguity file to a row of the attribute table,
+     * either through the id column or, when there is none, by reading the ids as 0-based or 1-based row positions.
+     * The base is known when the ids include 0 or the number of rows, otherwise the id column is required
+     */
+    private static Map<String, Integer> index_ids(DatasetDescriptor dataset , Table table , ContiguityFile contiguity) throws IOException {
+        Map<String, Integer> index_of = new HashMap<>();
+        if(dataset.get_id_column() != null)
+        {
+            int id = table.column(dataset.get_id_column());
+            for(int i = 0 ; i < table.rows.size() ; i++)
+            {
+                index_of.put(table.rows.get(i)[id].toString().trim() , i);
+            }
+            return index_of;
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for(String file_id : contiguity.ids)
+        {
+            if(!index_of.containsKey(file_id))
+            {
+                long value;
+                try {
+                    value = Long.parseLong(file_id);
+                }
+                catch (NumberFormatException e) {
+                    throw new IOException("the id " + file_id + " of the contiguity file is not a row position, set " + dataset.get_name() + ".id to the id column");
+                }
+                min = Math.min(min , value);
+                max = Math.max(max , value);
+                index_of.put(file_id , (int)value);
+            }
+        }
+        if(index_of.isEmpty() || min == 0)
+        {
+            return index_of;
+        }
+        //GeoDa numbers the rows from 1 when the ids are the record numbers
+        if(min >= 1 && max == table.rows.size())
+        {
+            index_of.replaceAll((file_id , value) -> value - 1);
+            return index_of;
+        }
+        throw new IOException("the ids of the contiguity file range from " + min + " to " + max + ", which is neither 0-based nor 1-based for " + table.rows.size() + " rows, set " + dataset.get_name() + ".id to the id column");
+    }
+
+    private static int resolve(Map<String, Integer> index_of , String file_id , int n) throws IOException {
+        Integer index = index_of.get(file_id);
+        if(index == null || index < 0 || index >= n)
+        {
+            throw new IOException("the id " + file_id + " of the contiguity file has no row in the attribute table");
+        }
+        return index;
+    }
+
+    /**
+     * This method reads an attribute table from a .dbf file or from a .csv file whose first line holds the column names
+     */
+    private static Table read_table(File file) throws IOException {
+        Table table = new Table();
+        if(file.getName().toLowerCase().endsWith(".dbf"))
+        {
+            try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+                DbaseFileReader reader = new DbaseFileReader(channel , false , StandardCharsets.ISO_8859_1);
+                try {
+                    int field_num = reader.getHeader().getNumFields();
+                    table.columns = new String[field_num];
+                    for(int i = 0 ; i < field_num ; i++)
+                    {
+                        table.columns[i] = reader.getHeader().getFieldName(i);
+                    }
+                    while(reader.hasNext())
+                    {
+                        table.rows.add(reader.readEntry());
+                    }
+                }
+                finally {
+                    reader.close();
+                }
+            }
+            return table;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath() , StandardCharsets.ISO_8859_1)) {
+            table.columns = read_csv_record(reader);
+            if(table.columns == null)
+            {
+                throw new IOException("the attribute table " + file + " is empty");
+            }
+            String[] values;
+            while((values = read_csv_record(reader)) != null)
+            {
+                if(values.length != table.columns.length)
+                {
+                    throw new IOException("the row " + (table.rows.size() + 1) + " of " + file + " has " + values.length + " fields instead of " + table.columns.length);
+                }
+                table.rows.add(values);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * This method reads the next record of a .csv file as in RFC 4180: a field in double quotes may hold commas, line breaks and quotes written twice.
+     * The blank lines between the records are skipped and the fields out of quotes are trimmed
+     * @return the fields of the record, null at the end of the file
+     */
+    private static String[] read_csv_record(BufferedReader reader) throws IOException {
+        String line = next_line(reader);
+        if(line == null)
+        {
+            return null;
+        }
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false; //inside a pair of double quotes
+        boolean was_quoted = false; //the current field started with a double quote
+        int i = 0;
+        while(true)
+        {
+            if(i == line.length())
+            {
+                if(!quoted)
+                {
+                    break;
+                }
+                //the line break belongs to the quoted field
+                line = reader.readLine();
+                if(line == null)
+                {
+                    throw new IOException("a quoted field of the attribute table is not closed");
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if(quoted)
+            {
+                if(c != '"')
+                {
+                    field.append(c);
+                }
+                else if(i < line.length() && line.charAt(i) == '"')
+                {
+                    field.append('"');
+                    i++;
+                }
+                else
+                {
+                    quoted = false;
+                }
+            }
+            else if(c == ',')
+            {
+                fields.add(was_quoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                was_quoted = false;
+            }
+            else if(c == '"' && field.toString().trim().isEmpty())
+            {
+                field.setLength(0);
+                quoted = true;
+                was_quoted = true;
+            }
+            else if(!(was_quoted && Character.isWhitespace(c)))
+            {
+                field.append(c);
+            }
+        }
+        fields.add(was_quoted ? field.toString() : field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    static class Table
+    {
+        String[] columns;
+        ArrayList<Object[]> rows = new ArrayList<>();
+
+        int column(String name) throws IOException {
+            for(int i = 0 ; i < columns.length ; i++)
+            {
+                if(columns[i].equalsIgnoreCase(name))
+                {
+                    return i;
+                }
+            }
+            throw new IOException("the attribute table has no column " + name);
+        }
+    }
+}